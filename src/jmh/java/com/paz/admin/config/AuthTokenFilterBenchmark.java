@@ -0,0 +1,92 @@
+package com.paz.admin.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paz.admin.service.TokenRevocationService;
+import com.paz.admin.service.UserDetailsServiceImpl;
+import com.paz.admin.service.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of AuthTokenFilter for a signin request carrying a stale bearer header
+ * (public route, now skipped by shouldNotFilter) versus the same token on a protected route,
+ * which still pays for the header parse, cached verification, revocation check and principal
+ * lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthTokenFilterBenchmark {
+    private static final String SECRET = "benchmarkJwtSecretKey1234567890benchmarkJwtSecretKey1234567890";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private AuthTokenFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing",
+                new JwtKeyRing("HS256", SECRET, "", "", "", true, 30000, new ObjectMapper()));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        jwtUtils.init();
+
+        UserPrincipal principal = new UserPrincipal(1L, "benchmark", "benchmark@paz.org", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = jwtUtils.generateJwtToken(principal);
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return principal;
+            }
+        };
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache",
+                new VerifiedTokenCache(jwtUtils, new SimpleMeterRegistry(), true, 1000));
+        ReflectionTestUtils.setField(filter, "userPrincipalCache",
+                new UserPrincipalCache(userDetailsService, new SimpleMeterRegistry(), 1000, 300));
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest publicRoute() throws Exception {
+        return filter(request("POST", "/api/auth/signin"));
+    }
+
+    @Benchmark
+    public MockHttpServletRequest protectedRoute() throws Exception {
+        return filter(request("GET", "/api/prisons"));
+    }
+
+    private MockHttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        return request;
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
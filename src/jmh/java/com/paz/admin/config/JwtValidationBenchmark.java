@@ -0,0 +1,72 @@
+package com.paz.admin.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of the old validate-then-extract path (two parser builds,
+ * two key derivations, two signature checks) with the single-parse verified-claims path and
+ * with a hit in the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtValidationBenchmark {
+    private static final String SECRET = "benchmarkJwtSecretKey1234567890benchmarkJwtSecretKey1234567890";
+
+    private JwtUtils jwtUtils;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing",
+                new JwtKeyRing("HS256", SECRET, "", "", "", true, 30000, new ObjectMapper()));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        jwtUtils.init();
+
+        UserPrincipal principal = new UserPrincipal(1L, "benchmark", "benchmark@paz.org", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_TEACHER")));
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, new SimpleMeterRegistry(), true, 1000);
+        verifiedTokenCache.getVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String twoCallPath() {
+        // Mirrors the former validateJwtToken + getUserNameFromJwtToken pair
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public JwtClaims singleParsePath() {
+        return jwtUtils.parseVerifiedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public JwtClaims cachedPath() {
+        return verifiedTokenCache.getVerifiedClaims(token).orElseThrow();
+    }
+}
@@ -0,0 +1,91 @@
+package com.paz.admin.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage timers for the authentication hot path: JWT parse-and-verify, user lookup,
+ * BCrypt verification and the JWT filter as a whole.
+ *
+ * All timers are registered up front and callers pass elapsed nanoseconds measured with
+ * {@link System#nanoTime()}, so recording does no tag lookup and allocates nothing. Histograms
+ * use fixed percentile buckets bounded per stage so they stay cheap to record and scrape.
+ */
+@Component
+public class AuthMetrics {
+    private final Timer tokenValid;
+    private final Timer tokenInvalid;
+    private final Timer userLookup;
+    private final Timer passwordMatch;
+    private final Timer filter;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        tokenValid = timer(meterRegistry, "auth.jwt.verify", "Parse and signature check of a JWT",
+                Duration.ofNanos(500), Duration.ofMillis(50)).tag("outcome", "valid").register(meterRegistry);
+        tokenInvalid = timer(meterRegistry, "auth.jwt.verify", "Parse and signature check of a JWT",
+                Duration.ofNanos(500), Duration.ofMillis(50)).tag("outcome", "invalid").register(meterRegistry);
+        userLookup = timer(meterRegistry, "auth.user.lookup", "Loading a user for authentication",
+                Duration.ofMillis(1), Duration.ofSeconds(1)).register(meterRegistry);
+        passwordMatch = timer(meterRegistry, "auth.password.match", "BCrypt password verification",
+                Duration.ofMillis(1), Duration.ofSeconds(2)).register(meterRegistry);
+        filter = timer(meterRegistry, "auth.filter", "JWT filter work per request, excluding the rest of the chain",
+                Duration.ofNanos(500), Duration.ofSeconds(1)).register(meterRegistry);
+    }
+
+    public void recordTokenVerification(long nanos, boolean valid) {
+        (valid ? tokenValid : tokenInvalid).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserLookup(long nanos) {
+        userLookup.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordMatch(long nanos) {
+        passwordMatch.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFilter(long nanos) {
+        filter.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Wraps an encoder so that every {@code matches} call is timed.
+     */
+    public PasswordEncoder timed(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return delegate.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                long start = System.nanoTime();
+                try {
+                    return delegate.matches(rawPassword, encodedPassword);
+                } finally {
+                    recordPasswordMatch(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return delegate.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    private static Timer.Builder timer(MeterRegistry meterRegistry, String name, String description,
+                                       Duration min, Duration max) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max);
+    }
+}
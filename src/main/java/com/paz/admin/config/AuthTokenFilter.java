@@ -1,12 +1,13 @@
 package com.paz.admin.config;
 
-import com.paz.admin.service.UserDetailsServiceImpl;
+import com.paz.admin.service.TokenRevocationService;
+import com.paz.admin.service.UserPrincipalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -16,41 +17,104 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
+    // Request attribute holding the verified JwtClaims of the authenticated request
+    public static final String CLAIMS_ATTRIBUTE = AuthTokenFilter.class.getName() + ".claims";
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Autowired
-    private JwtUtils jwtUtils;
+    private UserPrincipalCache userPrincipalCache;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    // When set, principals are built from the verified claims without loading the user, so
+    // role and status changes only apply to tokens issued afterwards. Those changes revoke the
+    // user's earlier tokens, and tokens older than trustClaimsMaxAgeSeconds are rejected as well.
+    @Value("${paz.app.auth.trustClaims:false}")
+    private boolean trustClaims;
+
+    @Value("${paz.app.auth.trustClaimsMaxAgeSeconds:900}")
+    private long trustClaimsMaxAgeSeconds;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Public routes never look at the Authorization header
+        return PublicEndpoints.MATCHER.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            JwtClaims claims = jwt != null ? verifiedTokenCache.getVerifiedClaims(jwt).orElse(null) : null;
+            // Refresh tokens are only accepted by /api/auth/refresh, never as bearer credentials
+            if (claims != null && claims.isAccessToken()) {
+                authenticate(request, claims);
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
+        authMetrics.recordFilter(System.nanoTime() - start);
 
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, JwtClaims claims) {
+        if (tokenRevocationService.isRevoked(claims.getTokenId())) {
+            logger.warn("Rejecting revoked token for user: {}", claims.getSubject());
+            return;
+        }
+
+        UserPrincipal userDetails;
+        if (trustClaims) {
+            if (!isWithinTrustedAge(claims)) {
+                logger.warn("Rejecting token older than {}s for user: {}", trustClaimsMaxAgeSeconds, claims.getSubject());
+                return;
+            }
+            // The claims may carry roles or an enabled status that has since been changed
+            if (tokenRevocationService.isRevokedForUser(claims.getUserId(), claims.getIssuedAt())) {
+                logger.warn("Rejecting token issued before the last account change for user: {}", claims.getSubject());
+                return;
+            }
+            userDetails = UserPrincipal.fromClaims(claims);
+        } else {
+            userDetails = userPrincipalCache.get(claims.getSubject(), claims.getUserId());
+        }
+        if (!userDetails.isEnabled()) {
+            logger.warn("Rejecting token for disabled user: {}", userDetails.getUsername());
+            return;
+        }
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+    }
+
+    private boolean isWithinTrustedAge(JwtClaims claims) {
+        if (claims.getUserId() == null || claims.getIssuedAt() == null) {
+            return false;
+        }
+        return claims.getIssuedAt().plusSeconds(trustClaimsMaxAgeSeconds).isAfter(Instant.now());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
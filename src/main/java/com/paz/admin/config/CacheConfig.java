@@ -0,0 +1,65 @@
+package com.paz.admin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Read-through caches for single-entity lookups. Each region has its own size and TTL bound;
+ * entries are evicted by the controllers that write them, so the TTL only bounds how long
+ * another node can serve a stale entry.
+ *
+ * Regions are monitored like the other Caffeine caches (cache.gets etc. tagged by cache name)
+ * plus a cache.hit.ratio gauge per region.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRISONS = "prisons";
+    public static final String TEACHERS = "teachers";
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     @Value("${paz.app.entityCache.prisons.maxSize:1000}") long prisonsMaxSize,
+                                     @Value("${paz.app.entityCache.prisons.ttlSeconds:3600}") long prisonsTtlSeconds,
+                                     @Value("${paz.app.entityCache.teachers.maxSize:10000}") long teachersMaxSize,
+                                     @Value("${paz.app.entityCache.teachers.ttlSeconds:600}") long teachersTtlSeconds) {
+        Map<String, long[]> bounds = Map.of(
+                PRISONS, new long[]{prisonsMaxSize, prisonsTtlSeconds},
+                TEACHERS, new long[]{teachersMaxSize, teachersTtlSeconds});
+
+        // Regions are created on first use rather than up front, so Boot's cache metrics binder
+        // does not register them a second time under a different tag set
+        return new CaffeineCacheManager() {
+            @Override
+            protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+                long[] bound = bounds.get(name);
+                if (bound == null) {
+                    throw new IllegalArgumentException("Unknown cache region: " + name);
+                }
+                Cache<Object, Object> cache = Caffeine.newBuilder()
+                        .maximumSize(bound[0])
+                        .expireAfterWrite(Duration.ofSeconds(bound[1]))
+                        .recordStats()
+                        .build();
+                CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+                Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                        .tag("cache", name)
+                        .description("Fraction of lookups served from the cache")
+                        .register(meterRegistry);
+                return cache;
+            }
+        };
+    }
+}
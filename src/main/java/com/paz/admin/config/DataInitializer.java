@@ -4,6 +4,9 @@ import com.paz.admin.entity.Role;
 import com.paz.admin.entity.User;
 import com.paz.admin.repository.RoleRepository;
 import com.paz.admin.repository.UserRepository;
+import com.paz.admin.service.RoleCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
@@ -15,6 +18,7 @@ import java.util.Set;
 @Component
 @Profile("test")
 public class DataInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
 
     @Autowired
     private UserRepository userRepository;
@@ -22,6 +26,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private RoleCatalog roleCatalog;
+
     @Override
     public void run(String... args) throws Exception {
         // Create roles if they don't exist
@@ -33,11 +40,11 @@ public class DataInitializer implements CommandLineRunner {
         createUserIfNotExists("testuser", "test@example.com", "password123", "Test", "User", teacherRole);
         createUserIfNotExists("admin", "admin@paz.org.zw", "password123", "System", "Administrator", adminRole);
         
-        System.out.println("DEBUG: Test data initialized successfully");
+        logger.info("Test data initialized");
     }
 
     private Role createRoleIfNotExists(String name, String description) {
-        return roleRepository.findByName(name)
+        return roleCatalog.findByName(name)
                 .orElseGet(() -> {
                     Role role = new Role();
                     role.setName(name);
@@ -62,7 +69,7 @@ public class DataInitializer implements CommandLineRunner {
             user.setRoles(roles);
             
             userRepository.save(user);
-            System.out.println("DEBUG: Created user: " + username);
+            logger.debug("Created user: {}", username);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.paz.admin.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Small, bounded pool for BCrypt work that does not have to happen on a request thread
+     * (rehash-on-login). Submissions beyond the queue are rejected rather than queued without
+     * limit, so password hashing can never starve the Tomcat workers serving CRUD endpoints.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${paz.app.passwordHash.poolSize:2}") int poolSize,
+            @Value("${paz.app.passwordHash.queueCapacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool for hashing the passwords of a bulk signup in parallel. It is separate from
+     * passwordHashExecutor so a large roster cannot crowd out rehash-on-login. When the short
+     * queue is full the submitting request thread hashes the row itself, which bounds the
+     * work in flight without rejecting rows.
+     */
+    @Bean(name = "bulkPasswordHashExecutor")
+    public ThreadPoolTaskExecutor bulkPasswordHashExecutor(
+            @Value("${paz.app.bulkSignup.hashPoolSize:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bulk-password-hash-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,100 @@
+package com.paz.admin.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the claims of a token that has already been signature-checked by
+ * {@link JwtUtils#parseVerifiedClaims(String)}.
+ */
+public final class JwtClaims {
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private final String tokenId;
+    private final String tokenType;
+    private final String familyId;
+    private final String subject;
+    private final Long userId;
+    private final List<String> roles;
+    private final Instant issuedAt;
+    private final Instant expiration;
+
+    public JwtClaims(String subject, Long userId, List<String> roles, Instant issuedAt, Instant expiration) {
+        this(null, ACCESS_TOKEN, null, subject, userId, roles, issuedAt, expiration);
+    }
+
+    public JwtClaims(String tokenId, String tokenType, String familyId, String subject, Long userId,
+                     List<String> roles, Instant issuedAt, Instant expiration) {
+        this.tokenId = tokenId;
+        // Tokens issued before the typ claim existed are access tokens
+        this.tokenType = tokenType != null ? tokenType : ACCESS_TOKEN;
+        this.familyId = familyId;
+        this.subject = subject;
+        this.userId = userId;
+        this.roles = roles != null ? List.copyOf(roles) : Collections.emptyList();
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    static JwtClaims from(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        String roles = claims.get("roles", String.class);
+
+        return new JwtClaims(
+                claims.getId(),
+                claims.get("typ", String.class),
+                claims.get("fam", String.class),
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                StringUtils.hasText(roles) ? Arrays.asList(roles.split(",")) : Collections.emptyList(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public boolean isAccessToken() {
+        return ACCESS_TOKEN.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TOKEN.equals(tokenType);
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+}
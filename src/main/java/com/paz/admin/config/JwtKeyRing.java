@@ -0,0 +1,317 @@
+package com.paz.admin.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signing and verification keys for JWTs, selected per token by its {@code kid} header.
+ *
+ * In HS256 mode (the default) tokens are signed with {@code paz.app.jwtSecret} and no kid.
+ * In RS256 mode the ring holds RSA keys loaded from {@code paz.app.jwt.keyDir}:
+ * {@code <kid>.key} files are PKCS#8 PEM private keys (their public halves are derived), and
+ * {@code <kid>.pub} files are X.509 PEM public keys kept only to verify tokens signed by a
+ * retired key. New tokens are signed with {@code paz.app.jwt.activeKid}, or the last kid in
+ * name order when unset.
+ *
+ * To rotate, add the new key everywhere first, then switch activeKid. Tokens signed by the
+ * old key stay valid until they expire, so nobody is logged out. HS256 tokens issued before
+ * switching to RS256 are only accepted while {@code paz.app.jwt.acceptLegacyHs256} is
+ * explicitly turned on; since anyone holding the old secret can mint them, switch it off again
+ * once the access-token lifetime has passed. RS256 nodes need no {@code paz.app.jwtSecret}.
+ *
+ * Verification-only nodes can set {@code paz.app.jwt.jwksUri} instead of holding private
+ * keys. Public keys are then fetched from that JWKS document and cached in memory. The
+ * document is re-fetched when an unknown kid shows up, at most once per
+ * {@code paz.app.jwt.jwksRefreshMinIntervalMs}. Only the request that claims the interval
+ * waits for the fetch; others carrying unknown kids are rejected straight away.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final SignatureAlgorithm algorithm;
+    private final String jwtSecret;
+    private final String keyDir;
+    private final String activeKid;
+    private final String jwksUri;
+    private final boolean acceptLegacyHs256;
+    private final long jwksRefreshMinIntervalMs;
+    private final ObjectMapper objectMapper;
+
+    private Key hmacKey;
+
+    private String signingKid;
+
+    private PrivateKey signingKey;
+
+    // kid -> public key; replaced wholesale, never mutated
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+
+    private final AtomicLong lastJwksFetch = new AtomicLong();
+
+    private HttpClient httpClient;
+
+    public JwtKeyRing(@Value("${paz.app.jwt.algorithm:HS256}") String algorithm,
+                      @Value("${paz.app.jwtSecret:}") String jwtSecret,
+                      @Value("${paz.app.jwt.keyDir:}") String keyDir,
+                      @Value("${paz.app.jwt.activeKid:}") String activeKid,
+                      @Value("${paz.app.jwt.jwksUri:}") String jwksUri,
+                      @Value("${paz.app.jwt.acceptLegacyHs256:false}") boolean acceptLegacyHs256,
+                      @Value("${paz.app.jwt.jwksRefreshMinIntervalMs:30000}") long jwksRefreshMinIntervalMs,
+                      ObjectMapper objectMapper) {
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        this.jwtSecret = jwtSecret;
+        this.keyDir = keyDir;
+        this.activeKid = activeKid;
+        this.jwksUri = jwksUri;
+        this.acceptLegacyHs256 = acceptLegacyHs256;
+        this.jwksRefreshMinIntervalMs = jwksRefreshMinIntervalMs;
+        this.objectMapper = objectMapper;
+        if (this.algorithm != SignatureAlgorithm.HS256 && this.algorithm != SignatureAlgorithm.RS256) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + algorithm + " (use HS256 or RS256)");
+        }
+        init();
+    }
+
+    private void init() {
+        if (StringUtils.hasText(jwtSecret)) {
+            hmacKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        }
+        if (algorithm == SignatureAlgorithm.HS256) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("paz.app.jwtSecret is required for HS256");
+            }
+            return;
+        }
+
+        if (StringUtils.hasText(keyDir)) {
+            loadKeyDir(Paths.get(keyDir));
+        } else if (StringUtils.hasText(jwksUri)) {
+            httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            lastJwksFetch.set(System.currentTimeMillis());
+            refreshFromJwks();
+        } else {
+            generateEphemeralKey();
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Key id to put in the header of new tokens, or null in HS256 mode.
+     */
+    public String getSigningKid() {
+        return algorithm == SignatureAlgorithm.HS256 ? null : signingKid;
+    }
+
+    public Key getSigningKey() {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            return hmacKey;
+        }
+        if (signingKey == null) {
+            throw new IllegalStateException("This node only verifies tokens; no private key is configured");
+        }
+        return signingKey;
+    }
+
+    // jjwt 0.11 declares this method with a raw JwsHeader; JwsHeader<?> would not override it
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        SignatureAlgorithm tokenAlgorithm = SignatureAlgorithm.forName(header.getAlgorithm());
+        if (tokenAlgorithm == SignatureAlgorithm.HS256
+                && (algorithm == SignatureAlgorithm.HS256 || acceptLegacyHs256) && hmacKey != null) {
+            return hmacKey;
+        }
+        if (tokenAlgorithm != SignatureAlgorithm.RS256 || algorithm != SignatureAlgorithm.RS256) {
+            throw new SignatureException("Unexpected JWT algorithm: " + tokenAlgorithm);
+        }
+
+        String kid = header.getKeyId();
+        PublicKey key = kid != null ? publicKeys.get(kid) : null;
+        if (key == null && kid != null && httpClient != null) {
+            maybeRefreshFromJwks();
+            key = publicKeys.get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Public keys as a JWKS document ({"keys": [...]}); empty in HS256 mode.
+     */
+    public Map<String, Object> toJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        if (algorithm == SignatureAlgorithm.RS256) {
+            publicKeys.forEach((kid, key) -> {
+                RSAPublicKey rsaKey = (RSAPublicKey) key;
+                Map<String, Object> jwk = new LinkedHashMap<>();
+                jwk.put("kty", "RSA");
+                jwk.put("kid", kid);
+                jwk.put("use", "sig");
+                jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+                jwk.put("n", base64Url(rsaKey.getModulus()));
+                jwk.put("e", base64Url(rsaKey.getPublicExponent()));
+                keys.add(jwk);
+            });
+        }
+        return Map.of("keys", keys);
+    }
+
+    private void loadKeyDir(Path dir) {
+        Map<String, PublicKey> loaded = new TreeMap<>();
+        Map<String, PrivateKey> privateKeys = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".key")) {
+                    String kid = name.substring(0, name.length() - 4);
+                    PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+                    RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey) privateKey;
+                    privateKeys.put(kid, privateKey);
+                    loaded.put(kid, keyFactory.generatePublic(
+                            new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent())));
+                } else if (name.endsWith(".pub")) {
+                    String kid = name.substring(0, name.length() - 4);
+                    loaded.putIfAbsent(kid, keyFactory.generatePublic(new X509EncodedKeySpec(readPem(file))));
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT keys from " + dir, e);
+        }
+
+        if (!privateKeys.isEmpty()) {
+            signingKid = StringUtils.hasText(activeKid) ? activeKid : ((TreeMap<String, PrivateKey>) privateKeys).lastKey();
+            signingKey = privateKeys.get(signingKid);
+            if (signingKey == null) {
+                throw new IllegalStateException("No private key for active kid " + signingKid + " in " + dir);
+            }
+        }
+        publicKeys = Map.copyOf(loaded);
+        logger.info("Loaded {} JWT verification keys from {}; signing kid: {}", loaded.size(), dir, signingKid);
+    }
+
+    private void generateEphemeralKey() {
+        KeyPair keyPair;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate RSA key pair", e);
+        }
+        signingKid = UUID.randomUUID().toString();
+        signingKey = keyPair.getPrivate();
+        publicKeys = Map.of(signingKid, keyPair.getPublic());
+        logger.warn("No paz.app.jwt.keyDir configured; using an ephemeral RSA key. Tokens will not survive a restart "
+                + "and are not valid on other nodes.");
+    }
+
+    private void maybeRefreshFromJwks() {
+        long last = lastJwksFetch.get();
+        long now = System.currentTimeMillis();
+        // No lock: the one thread that claims this interval fetches, the rest don't queue behind it
+        if (now - last < jwksRefreshMinIntervalMs || !lastJwksFetch.compareAndSet(last, now)) {
+            return;
+        }
+        refreshFromJwks();
+    }
+
+    private void refreshFromJwks() {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(jwksUri)).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                logger.warn("JWKS fetch from {} returned HTTP {}", jwksUri, response.statusCode());
+                return;
+            }
+            publicKeys = parseJwks(objectMapper.readTree(response.body()));
+            logger.info("Loaded {} JWT verification keys from {}", publicKeys.size(), jwksUri);
+        } catch (IOException | GeneralSecurityException e) {
+            logger.warn("JWKS fetch from {} failed: {}", jwksUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Map<String, PublicKey> parseJwks(JsonNode jwks) throws GeneralSecurityException {
+        Map<String, PublicKey> keys = new TreeMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        for (JsonNode jwk : jwks.path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+            keys.put(jwk.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Map.copyOf(keys);
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds when the high bit is set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
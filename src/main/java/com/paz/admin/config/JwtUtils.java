@@ -1,65 +1,105 @@
 package com.paz.admin.config;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${paz.app.jwtSecret}")
-    private String jwtSecret;
-
     @Value("${paz.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${paz.app.jwtRefreshExpirationMs:604800000}")
+    private long jwtRefreshExpirationMs;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Immutable and thread-safe, so it is built once instead of per call
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateJwtToken((UserPrincipal) authentication.getPrincipal());
+    }
 
+    public String generateJwtToken(UserPrincipal userPrincipal) {
         String roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
-        return Jwts.builder()
+        return signed(Jwts.builder())
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getUsername()))
+                .claim("typ", JwtClaims.ACCESS_TOKEN)
                 .claim("roles", roles)
                 .claim("userId", userPrincipal.getId())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Refresh tokens carry no roles; they only identify the user and the stored token row
+     * (jti) within its rotation family.
+     */
+    public String generateRefreshToken(UserPrincipal userPrincipal, String tokenId, String familyId) {
+        return signed(Jwts.builder())
+                .setId(tokenId)
+                .setSubject(userPrincipal.getUsername())
+                .claim("typ", JwtClaims.REFRESH_TOKEN)
+                .claim("fam", familyId)
+                .claim("userId", userPrincipal.getId())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtRefreshExpirationMs))
+                .compact();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    private JwtBuilder signed(JwtBuilder builder) {
+        String kid = keyRing.getSigningKid();
+        if (kid != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, kid);
+        }
+        return builder.signWith(keyRing.getSigningKey(), keyRing.getAlgorithm());
+    }
+
+    public long getJwtRefreshExpirationMs() {
+        return jwtRefreshExpirationMs;
+    }
+
+    /**
+     * Parses and verifies the token exactly once. Returns an empty Optional when the token
+     * is malformed, expired or not signed with our key.
+     */
+    public Optional<JwtClaims> parseVerifiedClaims(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            JwtClaims claims = JwtClaims.from(jwtParser.parseClaimsJws(token).getBody());
+            authMetrics.recordTokenVerification(System.nanoTime() - start, true);
+            return Optional.of(claims);
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -71,6 +111,17 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        authMetrics.recordTokenVerification(System.nanoTime() - start, false);
+        return Optional.empty();
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken).isPresent();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.paz.admin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protects /api/auth/signin from login bursts.
+ *
+ * Each username and each client IP gets a token bucket; buckets live in a bounded Caffeine
+ * map (internally striped) and are updated with a single CAS on a packed AtomicLong, so the
+ * check never takes a lock. Separately, a semaphore caps how many BCrypt verifications run at
+ * once. Either limit fails fast with {@link LoginThrottledException} instead of queuing the
+ * request on a Tomcat thread.
+ */
+@Component
+public class LoginThrottle {
+    private final long userCapacity;
+    private final long userRefillPerMinute;
+    private final long ipCapacity;
+    private final long ipRefillPerMinute;
+    private final long verificationWaitMs;
+
+    private final Semaphore verificationPermits;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public LoginThrottle(@Value("${paz.app.login.userCapacity:5}") long userCapacity,
+                         @Value("${paz.app.login.userRefillPerMinute:5}") long userRefillPerMinute,
+                         @Value("${paz.app.login.ipCapacity:20}") long ipCapacity,
+                         @Value("${paz.app.login.ipRefillPerMinute:20}") long ipRefillPerMinute,
+                         @Value("${paz.app.login.maxConcurrentVerifications:0}") int maxConcurrentVerifications,
+                         @Value("${paz.app.login.verificationWaitMs:100}") long verificationWaitMs) {
+        this.userCapacity = userCapacity;
+        this.userRefillPerMinute = userRefillPerMinute;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.verificationWaitMs = verificationWaitMs;
+        this.verificationPermits = new Semaphore(maxConcurrentVerifications > 0
+                ? maxConcurrentVerifications
+                : Runtime.getRuntime().availableProcessors() * 2);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Consumes one attempt from the client IP's and the username's bucket.
+     *
+     * @throws LoginThrottledException if either bucket is empty
+     */
+    public void checkRate(String username, String clientIp) {
+        long ipWaitMs = buckets.get("ip:" + clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerMinute))
+                .tryConsume(System.currentTimeMillis());
+        if (ipWaitMs > 0) {
+            throw new LoginThrottledException("Too many login attempts from this address", toSeconds(ipWaitMs));
+        }
+
+        String userKey = "user:" + (username != null ? username.toLowerCase(Locale.ROOT) : "");
+        long userWaitMs = buckets.get(userKey, key -> new TokenBucket(userCapacity, userRefillPerMinute))
+                .tryConsume(System.currentTimeMillis());
+        if (userWaitMs > 0) {
+            throw new LoginThrottledException("Too many login attempts for this user", toSeconds(userWaitMs));
+        }
+    }
+
+    /**
+     * Wraps the encoder used for login verification so that {@code matches} holds one of the
+     * limited verification permits. Encoding is not limited here.
+     */
+    public PasswordEncoder guard(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return delegate.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                boolean acquired;
+                try {
+                    acquired = verificationPermits.tryAcquire(verificationWaitMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                }
+                if (!acquired) {
+                    throw new LoginThrottledException("Too many concurrent login attempts", 1);
+                }
+
+                try {
+                    return delegate.matches(rawPassword, encodedPassword);
+                } finally {
+                    verificationPermits.release();
+                }
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return delegate.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * Lock-free token bucket. The state word packs the last refill time (upper 42 bits, epoch
+     * millis) and the current balance in thousandths of a token (lower 22 bits).
+     */
+    static final class TokenBucket {
+        private static final int TOKEN_BITS = 22;
+        private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+        private static final long ONE_TOKEN = 1000;
+
+        private final long capacity;
+        private final double refillPerMs;
+        private final AtomicLong state;
+
+        TokenBucket(long capacity, long refillPerMinute) {
+            this.capacity = Math.min(capacity * ONE_TOKEN, TOKEN_MASK);
+            this.refillPerMs = refillPerMinute * ONE_TOKEN / 60_000.0;
+            this.state = new AtomicLong(pack(System.currentTimeMillis(), this.capacity));
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the milliseconds until one is available
+         */
+        long tryConsume(long nowMs) {
+            while (true) {
+                long current = state.get();
+                long lastMs = current >>> TOKEN_BITS;
+                long tokens = current & TOKEN_MASK;
+
+                long elapsed = Math.max(0, nowMs - lastMs);
+                long refilled = Math.min(capacity, tokens + (long) (elapsed * refillPerMs));
+                long refillMs = Math.max(lastMs, nowMs);
+
+                if (refilled < ONE_TOKEN) {
+                    if (refillPerMs <= 0) {
+                        return Long.MAX_VALUE;
+                    }
+                    return (long) Math.ceil((ONE_TOKEN - refilled) / refillPerMs);
+                }
+                if (state.compareAndSet(current, pack(refillMs, refilled - ONE_TOKEN))) {
+                    return 0;
+                }
+            }
+        }
+
+        private static long pack(long millis, long tokens) {
+            return (millis << TOKEN_BITS) | tokens;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.paz.admin.config;
+
+/**
+ * Thrown when a signin attempt is rejected by {@link LoginThrottle}, either because a rate
+ * limit was hit or because too many password verifications are already running.
+ */
+public class LoginThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,31 @@
+package com.paz.admin.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Routes that need no authentication. The same matcher is used by {@link WebSecurityConfig}
+ * to permit the routes and by {@link AuthTokenFilter} to skip JWT work on them, so the two
+ * cannot drift apart.
+ */
+public final class PublicEndpoints {
+
+    private static final PathPatternRequestMatcher.Builder PATHS = PathPatternRequestMatcher.withDefaults();
+
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(
+            PATHS.matcher(HttpMethod.POST, "/api/auth/signin"),
+            PATHS.matcher(HttpMethod.POST, "/api/auth/signup"),
+            PATHS.matcher(HttpMethod.POST, "/api/auth/refresh"),
+            PATHS.matcher(HttpMethod.GET, "/api/auth/jwks"),
+            PATHS.matcher("/api/test/**"),
+            // Health probe groups on the application port; actuator itself is on the management port
+            PATHS.matcher(HttpMethod.GET, "/livez"),
+            PATHS.matcher(HttpMethod.GET, "/readyz"),
+            PATHS.matcher("/error")
+    );
+
+    private PublicEndpoints() {
+    }
+}
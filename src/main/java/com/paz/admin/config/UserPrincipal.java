@@ -15,14 +15,21 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled;
 
     public UserPrincipal(Long id, String username, String email, String password, 
                         Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, true);
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password,
+                        Collection<? extends GrantedAuthority> authorities, boolean enabled) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.enabled = enabled;
     }
 
     public static UserPrincipal create(User user) {
@@ -35,6 +42,25 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
+                authorities,
+                !Boolean.FALSE.equals(user.getEnabled())
+        );
+    }
+
+    /**
+     * Builds a principal from verified token claims alone. The email and password are not
+     * carried by the token and are left null.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        List<GrantedAuthority> authorities = claims.getRoles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(
+                claims.getUserId(),
+                claims.getSubject(),
+                null,
+                null,
                 authorities
         );
     }
@@ -79,6 +105,6 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.paz.admin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Size-bounded cache of already-verified bearer tokens, consulted by {@link AuthTokenFilter}
+ * before falling back to full signature verification in {@link JwtUtils}.
+ *
+ * Tokens are keyed by their SHA-256 digest so the raw token is never kept in memory, and each
+ * entry expires at the token's own expiry. Invalid tokens are never cached.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final JwtUtils jwtUtils;
+
+    private final boolean enabled;
+
+    private final Cache<String, JwtClaims> cache;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              MeterRegistry meterRegistry,
+                              @Value("${paz.app.tokenCache.enabled:true}") boolean enabled,
+                              @Value("${paz.app.tokenCache.maxSize:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+    }
+
+    public Optional<JwtClaims> getVerifiedClaims(String token) {
+        if (!enabled) {
+            return jwtUtils.parseVerifiedClaims(token);
+        }
+        return Optional.ofNullable(cache.get(digest(token),
+                key -> jwtUtils.parseVerifiedClaims(token).orElse(null)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, JwtClaims> {
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            Instant expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiration).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
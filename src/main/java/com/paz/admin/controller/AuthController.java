@@ -1,35 +1,64 @@
 package com.paz.admin.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paz.admin.config.AuthTokenFilter;
+import com.paz.admin.config.JwtClaims;
+import com.paz.admin.config.JwtKeyRing;
 import com.paz.admin.config.JwtUtils;
+import com.paz.admin.config.LoginThrottle;
+import com.paz.admin.config.LoginThrottledException;
 import com.paz.admin.config.UserPrincipal;
 import com.paz.admin.entity.Role;
 import com.paz.admin.entity.User;
+import com.paz.admin.payload.request.BulkSignupRequest;
 import com.paz.admin.payload.request.LoginRequest;
 import com.paz.admin.payload.request.SignupRequest;
+import com.paz.admin.payload.request.TokenRefreshRequest;
+import com.paz.admin.payload.request.UpdateUserRolesRequest;
+import com.paz.admin.payload.request.UpdateUserStatusRequest;
+import com.paz.admin.payload.response.BulkSignupResponse;
 import com.paz.admin.payload.response.ErrorResponse;
 import com.paz.admin.payload.response.JwtResponse;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PagedResponse;
 import com.paz.admin.payload.response.UserProfileResponse;
-import com.paz.admin.repository.RoleRepository;
 import com.paz.admin.repository.UserRepository;
+import com.paz.admin.service.AuthEventLogger;
+import com.paz.admin.service.BulkUserProvisioningService;
+import com.paz.admin.service.PasswordRehashService;
+import com.paz.admin.service.RefreshTokenService;
+import com.paz.admin.service.RoleCatalog;
+import com.paz.admin.service.TokenRefreshException;
+import com.paz.admin.service.TokenRevocationService;
+import com.paz.admin.service.UserPrincipalCache;
+import com.paz.admin.service.UserProfileCache;
+import com.paz.admin.service.UserQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -45,18 +74,52 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    PasswordEncoder passwordEncoder;
 
     @Autowired
-    PasswordEncoder passwordEncoder;
+    UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    PasswordRehashService passwordRehashService;
+
+    @Autowired
+    LoginThrottle loginThrottle;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    AuthEventLogger authEventLogger;
+
+    @Autowired
+    JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    BulkUserProvisioningService bulkUserProvisioningService;
+
+    @Autowired
+    RoleCatalog roleCatalog;
+
+    @Autowired
+    UserQueryService userQueryService;
+
+    @Autowired
+    UserProfileCache userProfileCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
 
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        // Debug logging
-        System.out.println("DEBUG: Authentication attempt for username: " + loginRequest.getUsername());
-        System.out.println("DEBUG: PasswordEncoder type: " + passwordEncoder.getClass().getSimpleName());
-        
+        long start = System.nanoTime();
+        String clientIp = getClientIp();
+
         try {
+            loginThrottle.checkRate(loginRequest.getUsername(), clientIp);
+
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
@@ -64,23 +127,71 @@ public class AuthController {
         String jwt = jwtUtils.generateJwtToken(authentication);
 
         UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
-        
-        System.out.println("DEBUG: Authentication successful for user: " + userDetails.getUsername());
+        passwordRehashService.rehashIfNeeded(userDetails, loginRequest.getPassword());
+        String refreshToken = refreshTokenService.issue(userDetails);
+
+        authEventLogger.success(userDetails.getUsername(), clientIp, System.nanoTime() - start);
 
         return ResponseEntity.ok(new JwtResponse(
                 jwt,
+                refreshToken,
                 userDetails.getId(),
                 userDetails.getUsername(),
                 userDetails.getEmail()
         ));
+        } catch (LoginThrottledException e) {
+            authEventLogger.lockout(loginRequest.getUsername(), clientIp, System.nanoTime() - start,
+                    e.getRetryAfterSeconds());
+            return createThrottledResponse(e);
         } catch (Exception e) {
-            System.out.println("DEBUG: Authentication failed for username: " + loginRequest.getUsername());
-            System.out.println("DEBUG: Error: " + e.getMessage());
-            e.printStackTrace();
+            authEventLogger.failure(loginRequest.getUsername(), clientIp, System.nanoTime() - start,
+                    e.getClass().getSimpleName());
             throw e;
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+        try {
+            RefreshTokenService.RefreshedTokens tokens = refreshTokenService.rotate(request.getRefreshToken());
+            UserPrincipal principal = tokens.getPrincipal();
+
+            return ResponseEntity.ok(new JwtResponse(
+                    tokens.getAccessToken(),
+                    tokens.getRefreshToken(),
+                    principal.getId(),
+                    principal.getUsername(),
+                    principal.getEmail()
+            ));
+        } catch (TokenRefreshException | UsernameNotFoundException e) {
+            return createErrorResponse(HttpStatus.UNAUTHORIZED, "Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/signout")
+    public ResponseEntity<?> signout(@RequestBody(required = false) TokenRefreshRequest request,
+                                     HttpServletRequest httpRequest) {
+        JwtClaims claims = (JwtClaims) httpRequest.getAttribute(AuthTokenFilter.CLAIMS_ATTRIBUTE);
+        if (claims == null) {
+            return createErrorResponse(HttpStatus.UNAUTHORIZED, "Error: Unauthorized");
+        }
+
+        tokenRevocationService.revoke(claims.getTokenId(), claims.getExpiration());
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken(), claims.getSubject());
+        }
+
+        return ResponseEntity.ok(new MessageResponse("Signed out successfully!"));
+    }
+
+    @GetMapping("/jwks")
+    public ResponseEntity<?> getJwks() {
+        // Verification-only nodes cache these keys and refetch only on an unknown kid
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyRing.toJwks());
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         try {
@@ -99,33 +210,7 @@ public class AuthController {
                                 signUpRequest.getFirstName(),
                                 signUpRequest.getLastName());
 
-            Set<String> strRoles = signUpRequest.getRole();
-            Set<Role> roles = new HashSet<>();
-
-            if (strRoles == null) {
-                Role userRole = roleRepository.findByName("ROLE_TEACHER")
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                roles.add(userRole);
-            } else {
-                strRoles.forEach(role -> {
-                    switch (role) {
-                        case "admin":
-                            Role adminRole = roleRepository.findByName("ROLE_ADMIN")
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(adminRole);
-                            break;
-                        case "manager":
-                            Role modRole = roleRepository.findByName("ROLE_PRISON_MANAGER")
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(modRole);
-                            break;
-                        default:
-                            Role userRole = roleRepository.findByName("ROLE_TEACHER")
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(userRole);
-                    }
-                });
-            }
+            Set<Role> roles = roleCatalog.resolve(signUpRequest.getRole());
 
             user.setRoles(roles);
             userRepository.save(user);
@@ -136,34 +221,42 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/signup/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> registerUsers(@Valid @RequestBody BulkSignupRequest request) {
+        try {
+            return ResponseEntity.ok(new BulkSignupResponse(bulkUserProvisioningService.provision(request.getUsers())));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took a username or email between the check and the insert
+            return createErrorResponse(HttpStatus.CONFLICT, "Error: Batch conflicts with concurrent registrations, please retry");
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to register users: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken() {
         return ResponseEntity.ok(new MessageResponse("Token is valid"));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile() {
+    public ResponseEntity<?> getUserProfile(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
-            User user = userRepository.findById(userPrincipal.getId())
+            UserProfileCache.CachedProfile cached = userProfileCache.get(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-            List<String> roles = user.getRoles().stream()
-                .map(Role::getName)
-                .collect(Collectors.toList());
-
-            UserProfileResponse profileResponse = new UserProfileResponse(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                roles
-            );
-
-            return ResponseEntity.ok(profileResponse);
+            // Clients revalidate on every call; unchanged profiles cost no body and no DB read
+            if (cached.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.getEtag()).build();
+            }
+            return ResponseEntity.ok()
+                .eTag(cached.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cached.getProfile());
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get user profile: " + e.getMessage());
         }
@@ -171,35 +264,127 @@ public class AuthController {
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @RequestParam(defaultValue = "id,asc") String sort,
+                                         @RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(required = false) Boolean enabled,
+                                         @RequestParam(required = false) Long afterId) {
         try {
-            List<User> users = userRepository.findAll();
-            List<UserProfileResponse> userResponses = users.stream()
-                .map(user -> {
-                    List<String> roles = user.getRoles().stream()
-                        .map(Role::getName)
-                        .collect(Collectors.toList());
-                    return new UserProfileResponse(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        roles
-                    );
-                })
-                .collect(Collectors.toList());
-
-            return ResponseEntity.ok(userResponses);
+            if (page < 0 || size < 1 || size > UserQueryService.MAX_PAGE_SIZE) {
+                return createErrorResponse(HttpStatus.BAD_REQUEST,
+                        "Error: page must be >= 0 and size between 1 and " + UserQueryService.MAX_PAGE_SIZE);
+            }
+
+            UserQueryService.UserFilter filter = new UserQueryService.UserFilter(q, role, enabled);
+            if (afterId != null) {
+                return ResponseEntity.ok(userQueryService.findAfter(filter, afterId, size));
+            }
+            return ResponseEntity.ok(userQueryService.findPage(filter, page, size, UserQueryService.parseSort(sort)));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, "Error: " + e.getMessage());
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get users: " + e.getMessage());
         }
     }
 
+    @GetMapping(value = "/users/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String q,
+                                                             @RequestParam(required = false) String role,
+                                                             @RequestParam(required = false) Boolean enabled) {
+        UserQueryService.UserFilter filter = new UserQueryService.UserFilter(q, role, enabled);
+
+        // Writes a JSON array one keyset page at a time, so memory use is bounded by the page size
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                Long afterId = 0L;
+                while (afterId != null) {
+                    PagedResponse<UserProfileResponse> batch =
+                            userQueryService.findAfter(filter, afterId, UserQueryService.MAX_PAGE_SIZE);
+                    for (UserProfileResponse user : batch.getContent()) {
+                        generator.writeObject(user);
+                    }
+                    generator.flush();
+                    afterId = batch.getNextAfterId();
+                }
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PutMapping("/users/{id}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateUserRoles(@PathVariable Long id, @Valid @RequestBody UpdateUserRolesRequest request) {
+        try {
+            Optional<User> optionalUser = userRepository.findById(id);
+            if (optionalUser.isEmpty()) {
+                return createErrorResponse(HttpStatus.NOT_FOUND, "User not found with id: " + id);
+            }
+
+            User user = optionalUser.get();
+            user.setRoles(roleCatalog.resolve(request.getRole()));
+            userRepository.save(user);
+            userPrincipalCache.evict(user.getUsername());
+            userProfileCache.evict(user.getId());
+            // Tokens already issued carry the old roles and status in their claims
+            tokenRevocationService.revokeAllForUser(user.getId());
+
+            return ResponseEntity.ok(new MessageResponse("User roles updated successfully!"));
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update user roles: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/users/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateUserStatus(@PathVariable Long id, @Valid @RequestBody UpdateUserStatusRequest request) {
+        try {
+            Optional<User> optionalUser = userRepository.findById(id);
+            if (optionalUser.isEmpty()) {
+                return createErrorResponse(HttpStatus.NOT_FOUND, "User not found with id: " + id);
+            }
+
+            User user = optionalUser.get();
+            user.setEnabled(request.getEnabled());
+            userRepository.save(user);
+            userPrincipalCache.evict(user.getUsername());
+            userProfileCache.evict(user.getId());
+            // Tokens already issued carry the old roles and status in their claims
+            tokenRevocationService.revokeAllForUser(user.getId());
+
+            return ResponseEntity.ok(new MessageResponse("User status updated successfully!"));
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update user status: " + e.getMessage());
+        }
+    }
+
     // Helper methods
     private ResponseEntity<ErrorResponse> createErrorResponse(HttpStatus status, String message) {
         String path = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
                 .getRequest().getRequestURI();
         return ResponseEntity.status(status).body(new ErrorResponse(status.value(), message, path));
     }
+
+    private ResponseEntity<ErrorResponse> createThrottledResponse(LoginThrottledException e) {
+        ResponseEntity<ErrorResponse> error = createErrorResponse(HttpStatus.TOO_MANY_REQUESTS, "Error: " + e.getMessage());
+        return ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error.getBody());
+    }
+
+    private String getClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return "unknown";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.paz.admin.controller;
+
+import com.paz.admin.service.ExchangeFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prepares the HTTP response of a streamed export for the controllers.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Sets the content headers for an export named {@code baseName} and returns the stream to
+     * write it to, gzip-compressed when the client's Accept-Encoding allows it. The caller
+     * closes the returned stream to finish the body.
+     */
+    static OutputStream open(HttpServletResponse response, ExchangeFormat format, String baseName,
+                             String acceptEncoding) throws IOException {
+        response.setContentType(format.getMediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + baseName + "." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+        }
+        return response.getOutputStream();
+    }
+}
@@ -1,18 +1,41 @@
 package com.paz.admin.controller;
 
+import com.paz.admin.config.CacheConfig;
 import com.paz.admin.entity.Prison;
+import com.paz.admin.payload.request.BulkDeleteRequest;
+import com.paz.admin.payload.request.BulkPrisonUpdateRequest;
+import com.paz.admin.payload.request.VersionedId;
+import com.paz.admin.payload.response.BulkWriteResponse;
 import com.paz.admin.payload.response.ErrorResponse;
+import com.paz.admin.payload.response.ImportReport;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PrisonView;
+import com.paz.admin.repository.DataConstraints;
 import com.paz.admin.repository.PrisonRepository;
+import com.paz.admin.service.BulkExportService;
+import com.paz.admin.service.BulkImportService;
+import com.paz.admin.service.BulkWriteService;
+import com.paz.admin.service.ExchangeFormat;
+import com.paz.admin.service.PrisonQueryService;
+import com.paz.admin.service.PrisonStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,16 +47,92 @@ public class PrisonController {
     @Autowired
     private PrisonRepository prisonRepository;
 
+    @Autowired
+    private BulkExportService bulkExportService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private PrisonQueryService prisonQueryService;
+
+    @Autowired
+    private PrisonStatsService prisonStatsService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public List<Prison> getAllPrisons() {
-        return prisonRepository.findAll();
+    public ResponseEntity<?> getAllPrisons(@RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(defaultValue = "id,asc") String sort,
+                                           @RequestParam(required = false) String name,
+                                           @RequestParam(required = false) String location,
+                                           @RequestParam(required = false) Integer minCapacity,
+                                           @RequestParam(required = false) Integer maxCapacity,
+                                           @RequestParam(required = false) Double minOccupancy,
+                                           @RequestParam(required = false) Double maxOccupancy,
+                                           @RequestParam(required = false) Long afterId) {
+        try {
+            if (page < 0 || size < 1 || size > PrisonQueryService.MAX_PAGE_SIZE) {
+                return createErrorResponse(HttpStatus.BAD_REQUEST,
+                        "page must be >= 0 and size between 1 and " + PrisonQueryService.MAX_PAGE_SIZE);
+            }
+
+            PrisonQueryService.PrisonFilter filter = new PrisonQueryService.PrisonFilter(
+                    name, location, minCapacity, maxCapacity, minOccupancy, maxOccupancy);
+            if (afterId != null) {
+                return ResponseEntity.ok(prisonQueryService.findAfter(filter, afterId, size));
+            }
+            return ResponseEntity.ok(prisonQueryService.findPage(filter, page, size, PrisonQueryService.parseSort(sort)));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get prisons: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams every prison as CSV or NDJSON ({@code format=csv|ndjson}), gzip-compressed when
+     * the client accepts it.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    public ResponseEntity<?> exportPrisons(@RequestParam(defaultValue = "csv") String format,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                           HttpServletResponse response) {
+        ExchangeFormat exchangeFormat;
+        try {
+            exchangeFormat = ExchangeFormat.named(format);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        try {
+            OutputStream out = ExportResponses.open(response, exchangeFormat, "prisons", acceptEncoding);
+            bulkExportService.exportPrisons(exchangeFormat, out);
+            // Closed only on success, so a failed gzip export is not finished off as a valid file
+            out.close();
+            return null; // the body has been written
+        } catch (Exception e) {
+            return exportFailed(response, "prisons", e);
+        }
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    public ResponseEntity<?> getPrisonStats() {
+        try {
+            return ResponseEntity.ok(prisonStatsService.getStats());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get prison stats: " + e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public ResponseEntity<Prison> getPrisonById(@PathVariable Long id) {
-        Optional<Prison> prison = prisonRepository.findById(id);
+    public ResponseEntity<PrisonView> getPrisonById(@PathVariable Long id) {
+        Optional<PrisonView> prison = prisonQueryService.findById(id);
         return prison.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
     }
@@ -60,28 +159,104 @@ public class PrisonController {
                 return createErrorResponse(HttpStatus.BAD_REQUEST, "Current population cannot be negative");
             }
 
-            if (prisonRepository.existsByName(prison.getName())) {
-                return createErrorResponse(HttpStatus.CONFLICT, "Prison name is already taken");
-            }
-
             if (prison.getContactEmail() != null && !prison.getContactEmail().trim().isEmpty()) {
                 if (!isValidEmail(prison.getContactEmail())) {
                     return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid contact email format");
                 }
-                if (prisonRepository.existsByContactEmail(prison.getContactEmail())) {
-                    return createErrorResponse(HttpStatus.CONFLICT, "Contact email is already in use");
-                }
+            } else {
+                // Blank is stored as NULL so it never collides with uk_prisons_contact_email
+                prison.setContactEmail(null);
             }
 
+            // Name and contact email uniqueness are enforced by the database
+            long statsGeneration = prisonStatsService.generation();
             Prison savedPrison = prisonRepository.save(prison);
+            prisonStatsService.onSaved(statsGeneration, null, savedPrison);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedPrison);
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create prison: " + e.getMessage());
         }
     }
 
+    /**
+     * Bulk load from a CSV body with a header row or an NDJSON body; responds with a per-record
+     * error report. The columns are listed on BulkImportService.importPrisons.
+     */
+    @PostMapping(value = "/import", consumes = {ExchangeFormat.CSV_VALUE, ExchangeFormat.NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importPrisons(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) {
+        try {
+            ImportReport report = bulkImportService.importPrisons(body, MediaType.parseMediaType(contentType));
+            if (report.getImported() > 0) {
+                prisonStatsService.rebuild();
+            }
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took a name or email between the existence check and the insert
+            return createErrorResponse(HttpStatus.CONFLICT, "Import conflicts with concurrent writes, please retry");
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import prisons: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets location and/or capacity on the listed prisons, each given with the version the
+     * client read. All-or-nothing; a stale version is a 409.
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRISONS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    })
+    public ResponseEntity<?> updatePrisons(@Valid @RequestBody BulkPrisonUpdateRequest request) {
+        try {
+            int updated = bulkWriteService.updatePrisons(request);
+            prisonStatsService.rebuild();
+            return ResponseEntity.ok(new BulkWriteResponse(updated));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return createErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update prisons: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRISONS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    })
+    public ResponseEntity<?> deletePrisons(@Valid @RequestBody BulkDeleteRequest request) {
+        try {
+            int deleted = bulkWriteService.deletePrisons(request.getItems());
+            prisonStatsService.rebuild();
+            return ResponseEntity.ok(new BulkWriteResponse(deleted));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return createErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete prisons: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    // Teacher views embed the prison's name and location, so they are dropped too
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRISONS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    })
     public ResponseEntity<?> updatePrison(@PathVariable Long id, @Valid @RequestBody Prison prisonDetails) {
         try {
             Optional<Prison> optionalPrison = prisonRepository.findById(id);
@@ -90,6 +265,9 @@ public class PrisonController {
             }
 
             Prison prison = optionalPrison.get();
+            if (prisonDetails.getVersion() != null && !prisonDetails.getVersion().equals(prison.getVersion())) {
+                return createErrorResponse(HttpStatus.CONFLICT, "Prison was modified by another request");
+            }
 
             // Validate required fields
             if (prisonDetails.getName() == null || prisonDetails.getName().trim().isEmpty()) {
@@ -109,32 +287,32 @@ public class PrisonController {
                 return createErrorResponse(HttpStatus.BAD_REQUEST, "Current population cannot be negative");
             }
 
-            // Check if name is being changed and if new name already exists
-            if (!prison.getName().equals(prisonDetails.getName()) &&
-                prisonRepository.existsByName(prisonDetails.getName())) {
-                return createErrorResponse(HttpStatus.CONFLICT, "Prison name is already taken");
-            }
-
-            // Check if email is being changed and if new email already exists
-            if (prisonDetails.getContactEmail() != null && !prisonDetails.getContactEmail().trim().isEmpty()) {
-                if (!isValidEmail(prisonDetails.getContactEmail())) {
+            String contactEmail = prisonDetails.getContactEmail();
+            if (contactEmail != null && !contactEmail.trim().isEmpty()) {
+                if (!isValidEmail(contactEmail)) {
                     return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid contact email format");
                 }
-                if (!prisonDetails.getContactEmail().equals(prison.getContactEmail()) &&
-                    prisonRepository.existsByContactEmail(prisonDetails.getContactEmail())) {
-                    return createErrorResponse(HttpStatus.CONFLICT, "Contact email is already in use");
-                }
+            } else {
+                contactEmail = null;
             }
 
+            PrisonStatsService.Figures before = PrisonStatsService.Figures.of(prison);
             prison.setName(prisonDetails.getName());
             prison.setLocation(prisonDetails.getLocation());
             prison.setCapacity(prisonDetails.getCapacity());
             prison.setCurrentPopulation(prisonDetails.getCurrentPopulation());
-            prison.setContactEmail(prisonDetails.getContactEmail());
+            prison.setContactEmail(contactEmail);
             prison.setContactPhone(prisonDetails.getContactPhone());
 
+            long statsGeneration = prisonStatsService.generation();
             Prison updatedPrison = prisonRepository.save(prison);
+            prisonStatsService.onSaved(statsGeneration, before, updatedPrison);
             return ResponseEntity.ok(updatedPrison);
+        } catch (OptimisticLockingFailureException e) {
+            // Changed by another request between our read and the versioned UPDATE
+            return createErrorResponse(HttpStatus.CONFLICT, "Prison was modified by another request");
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update prison: " + e.getMessage());
         }
@@ -142,26 +320,63 @@ public class PrisonController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRISONS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    })
     public ResponseEntity<?> deletePrison(@PathVariable Long id) {
         try {
-            if (!prisonRepository.existsById(id)) {
+            Optional<Prison> optionalPrison = prisonRepository.findById(id);
+            if (optionalPrison.isEmpty()) {
                 return createErrorResponse(HttpStatus.NOT_FOUND, "Prison not found with id: " + id);
             }
 
-            prisonRepository.deleteById(id);
+            // Deletes only the version just read, so the figures subtracted below are the ones removed;
+            // the prison's teachers are unassigned in the same transaction
+            Prison prison = optionalPrison.get();
+            long statsGeneration = prisonStatsService.generation();
+            bulkWriteService.deletePrisons(List.of(new VersionedId(id, prison.getVersion())));
+            prisonStatsService.onDeleted(statsGeneration, PrisonStatsService.Figures.of(prison));
             return ResponseEntity.ok(new MessageResponse("Prison deleted successfully"));
+        } catch (OptimisticLockingFailureException e) {
+            return createErrorResponse(HttpStatus.CONFLICT, "Prison was modified by another request");
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete prison: " + e.getMessage());
         }
     }
 
     // Helper methods
+    private ResponseEntity<ErrorResponse> exportFailed(HttpServletResponse response, String what, Exception e) {
+        if (response.isCommitted()) {
+            // Too late for an error body; failing the request aborts the transfer instead
+            throw new IllegalStateException("Failed to export " + what, e);
+        }
+        response.reset();
+        return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to export " + what + ": " + e.getMessage());
+    }
+
     private ResponseEntity<ErrorResponse> createErrorResponse(HttpStatus status, String message) {
         String path = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
                 .getRequest().getRequestURI();
         return ResponseEntity.status(status).body(new ErrorResponse(status.value(), message, path));
     }
 
+    private ResponseEntity<ErrorResponse> constraintViolationResponse(DataIntegrityViolationException e) {
+        String constraint = DataConstraints.violated(e).orElse("");
+        switch (constraint) {
+            case DataConstraints.PRISONS_NAME:
+                return createErrorResponse(HttpStatus.CONFLICT, "Prison name is already taken");
+            case DataConstraints.PRISONS_CONTACT_EMAIL:
+                return createErrorResponse(HttpStatus.CONFLICT, "Contact email is already in use");
+            case DataConstraints.TEACHERS_PRISON:
+                return createErrorResponse(HttpStatus.CONFLICT, "Prison still has teachers assigned");
+            default:
+                return createErrorResponse(HttpStatus.CONFLICT, "Prison conflicts with existing data");
+        }
+    }
+
     private boolean isValidEmail(String email) {
         String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
         return email != null && email.matches(emailRegex);
@@ -1,20 +1,40 @@
 package com.paz.admin.controller;
 
+import com.paz.admin.config.CacheConfig;
+import com.paz.admin.entity.Prison;
 import com.paz.admin.entity.Teacher;
+import com.paz.admin.payload.request.BulkDeleteRequest;
+import com.paz.admin.payload.request.BulkTeacherUpdateRequest;
+import com.paz.admin.payload.response.BulkWriteResponse;
 import com.paz.admin.payload.response.ErrorResponse;
+import com.paz.admin.payload.response.ImportReport;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.TeacherView;
+import com.paz.admin.repository.DataConstraints;
 import com.paz.admin.repository.PrisonRepository;
 import com.paz.admin.repository.TeacherRepository;
+import com.paz.admin.service.BulkExportService;
+import com.paz.admin.service.BulkImportService;
+import com.paz.admin.service.BulkWriteService;
+import com.paz.admin.service.ExchangeFormat;
+import com.paz.admin.service.TeacherQueryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -28,30 +48,104 @@ public class TeacherController {
     @Autowired
     private PrisonRepository prisonRepository;
 
+    @Autowired
+    private BulkExportService bulkExportService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private TeacherQueryService teacherQueryService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public List<Teacher> getAllTeachers() {
-        return teacherRepository.findAll();
+    public ResponseEntity<?> getAllTeachers(@RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(defaultValue = "id,asc") String sort,
+                                            @RequestParam(required = false) Long prisonId,
+                                            @RequestParam(required = false) String specialization,
+                                            @RequestParam(required = false) Integer minExperience,
+                                            @RequestParam(required = false) Integer maxExperience,
+                                            @RequestParam(required = false) String q,
+                                            @RequestParam(required = false) Long afterId) {
+        try {
+            return search(new TeacherQueryService.TeacherFilter(prisonId, specialization, minExperience, maxExperience, q),
+                    page, size, sort, afterId);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get teachers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams every teacher, or one prison's, as CSV or NDJSON ({@code format=csv|ndjson}),
+     * gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    public ResponseEntity<?> exportTeachers(@RequestParam(defaultValue = "csv") String format,
+                                            @RequestParam(required = false) Long prisonId,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            HttpServletResponse response) {
+        ExchangeFormat exchangeFormat;
+        try {
+            exchangeFormat = ExchangeFormat.named(format);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        try {
+            OutputStream out = ExportResponses.open(response, exchangeFormat, "teachers", acceptEncoding);
+            bulkExportService.exportTeachers(exchangeFormat, prisonId, out);
+            // Closed only on success, so a failed gzip export is not finished off as a valid file
+            out.close();
+            return null; // the body has been written
+        } catch (Exception e) {
+            return exportFailed(response, "teachers", e);
+        }
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public ResponseEntity<Teacher> getTeacherById(@PathVariable Long id) {
-        Optional<Teacher> teacher = teacherRepository.findById(id);
+    public ResponseEntity<TeacherView> getTeacherById(@PathVariable Long id) {
+        Optional<TeacherView> teacher = teacherQueryService.findById(id);
         return teacher.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/prison/{prisonId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public List<Teacher> getTeachersByPrison(@PathVariable Long prisonId) {
-        return teacherRepository.findByPrisonId(prisonId);
+    public ResponseEntity<?> getTeachersByPrison(@PathVariable Long prisonId,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size,
+                                                 @RequestParam(defaultValue = "id,asc") String sort,
+                                                 @RequestParam(required = false) Long afterId) {
+        try {
+            return search(TeacherQueryService.TeacherFilter.byPrison(prisonId), page, size, sort, afterId);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get teachers: " + e.getMessage());
+        }
     }
 
     @GetMapping("/specialization/{specialization}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
-    public List<Teacher> getTeachersBySpecialization(@PathVariable String specialization) {
-        return teacherRepository.findBySpecialization(specialization);
+    public ResponseEntity<?> getTeachersBySpecialization(@PathVariable String specialization,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(defaultValue = "id,asc") String sort,
+                                                         @RequestParam(required = false) Long afterId) {
+        try {
+            return search(TeacherQueryService.TeacherFilter.bySpecialization(specialization), page, size, sort, afterId);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to get teachers: " + e.getMessage());
+        }
     }
 
     @PostMapping
@@ -74,26 +168,78 @@ public class TeacherController {
                 return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid email format");
             }
 
-            if (teacherRepository.existsByEmail(teacher.getEmail())) {
-                return createErrorResponse(HttpStatus.CONFLICT, "Email is already in use");
-            }
-
-            // Validate prison exists if provided
-            if (teacher.getPrison() != null && teacher.getPrison().getId() != null) {
-                if (!prisonRepository.existsById(teacher.getPrison().getId())) {
-                    return createErrorResponse(HttpStatus.NOT_FOUND, "Prison not found");
-                }
-            }
+            teacher.setPrison(prisonReference(teacher.getPrison()));
 
+            // Email uniqueness and the prison reference are enforced by the database
             Teacher savedTeacher = teacherRepository.save(teacher);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedTeacher);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TeacherView.from(savedTeacher));
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create teacher: " + e.getMessage());
         }
     }
 
+    /**
+     * Bulk load from a CSV body with a header row or an NDJSON body; responds with a per-record
+     * error report. The columns are listed on BulkImportService.importTeachers.
+     */
+    @PostMapping(value = "/import", consumes = {ExchangeFormat.CSV_VALUE, ExchangeFormat.NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    public ResponseEntity<?> importTeachers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) {
+        try {
+            ImportReport report = bulkImportService.importTeachers(body, MediaType.parseMediaType(contentType));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took a name or email between the existence check and the insert
+            return createErrorResponse(HttpStatus.CONFLICT, "Import conflicts with concurrent writes, please retry");
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import teachers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Changes many teachers at once: either the listed ids (each with the version the client
+     * read) or every teacher in {@code fromPrisonId}. All-or-nothing; a stale version is a 409.
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    public ResponseEntity<?> updateTeachers(@Valid @RequestBody BulkTeacherUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(new BulkWriteResponse(bulkWriteService.updateTeachers(request)));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return createErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update teachers: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    public ResponseEntity<?> deleteTeachers(@Valid @RequestBody BulkDeleteRequest request) {
+        try {
+            return ResponseEntity.ok(new BulkWriteResponse(bulkWriteService.deleteTeachers(request.getItems())));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return createErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete teachers: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('PRISON_MANAGER')")
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id")
     public ResponseEntity<?> updateTeacher(@PathVariable Long id, @Valid @RequestBody Teacher teacherDetails) {
         try {
             Optional<Teacher> optionalTeacher = teacherRepository.findById(id);
@@ -102,6 +248,9 @@ public class TeacherController {
             }
 
             Teacher teacher = optionalTeacher.get();
+            if (teacherDetails.getVersion() != null && !teacherDetails.getVersion().equals(teacher.getVersion())) {
+                return createErrorResponse(HttpStatus.CONFLICT, "Teacher was modified by another request");
+            }
 
             // Validate required fields
             if (teacherDetails.getFirstName() == null || teacherDetails.getFirstName().trim().isEmpty()) {
@@ -119,29 +268,21 @@ public class TeacherController {
                 return createErrorResponse(HttpStatus.BAD_REQUEST, "Invalid email format");
             }
 
-            // Check if email is being changed and if new email already exists
-            if (!teacher.getEmail().equals(teacherDetails.getEmail()) &&
-                teacherRepository.existsByEmail(teacherDetails.getEmail())) {
-                return createErrorResponse(HttpStatus.CONFLICT, "Email is already in use");
-            }
-
-            // Validate prison exists if provided
-            if (teacherDetails.getPrison() != null && teacherDetails.getPrison().getId() != null) {
-                if (!prisonRepository.existsById(teacherDetails.getPrison().getId())) {
-                    return createErrorResponse(HttpStatus.NOT_FOUND, "Prison not found");
-                }
-            }
-
             teacher.setFirstName(teacherDetails.getFirstName());
             teacher.setLastName(teacherDetails.getLastName());
             teacher.setEmail(teacherDetails.getEmail());
             teacher.setPhoneNumber(teacherDetails.getPhoneNumber());
             teacher.setSpecialization(teacherDetails.getSpecialization());
             teacher.setYearsOfExperience(teacherDetails.getYearsOfExperience());
-            teacher.setPrison(teacherDetails.getPrison());
+            teacher.setPrison(prisonReference(teacherDetails.getPrison()));
 
             Teacher updatedTeacher = teacherRepository.save(teacher);
-            return ResponseEntity.ok(updatedTeacher);
+            return ResponseEntity.ok(TeacherView.from(updatedTeacher));
+        } catch (OptimisticLockingFailureException e) {
+            // Changed by another request between our read and the versioned UPDATE
+            return createErrorResponse(HttpStatus.CONFLICT, "Teacher was modified by another request");
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update teacher: " + e.getMessage());
         }
@@ -149,20 +290,65 @@ public class TeacherController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id")
     public ResponseEntity<?> deleteTeacher(@PathVariable Long id) {
         try {
-            if (!teacherRepository.existsById(id)) {
+            if (teacherRepository.deleteAndCount(id) == 0) {
                 return createErrorResponse(HttpStatus.NOT_FOUND, "Teacher not found with id: " + id);
             }
-
-            teacherRepository.deleteById(id);
             return ResponseEntity.ok(new MessageResponse("Teacher deleted successfully"));
+        } catch (DataIntegrityViolationException e) {
+            return constraintViolationResponse(e);
         } catch (Exception e) {
             return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete teacher: " + e.getMessage());
         }
     }
 
     // Helper methods
+
+    /**
+     * A reference to the requested prison that does not query for it; an unknown id fails the
+     * insert on fk_teachers_prison instead.
+     */
+    private Prison prisonReference(Prison prison) {
+        if (prison == null || prison.getId() == null) {
+            return null;
+        }
+        return prisonRepository.getReferenceById(prison.getId());
+    }
+
+    private ResponseEntity<ErrorResponse> constraintViolationResponse(DataIntegrityViolationException e) {
+        String constraint = DataConstraints.violated(e).orElse("");
+        switch (constraint) {
+            case DataConstraints.TEACHERS_EMAIL:
+                return createErrorResponse(HttpStatus.CONFLICT, "Email is already in use");
+            case DataConstraints.TEACHERS_PRISON:
+                return createErrorResponse(HttpStatus.NOT_FOUND, "Prison not found");
+            default:
+                return createErrorResponse(HttpStatus.CONFLICT, "Teacher conflicts with existing data");
+        }
+    }
+
+    private ResponseEntity<?> search(TeacherQueryService.TeacherFilter filter, int page, int size, String sort, Long afterId) {
+        if (page < 0 || size < 1 || size > TeacherQueryService.MAX_PAGE_SIZE) {
+            return createErrorResponse(HttpStatus.BAD_REQUEST,
+                    "page must be >= 0 and size between 1 and " + TeacherQueryService.MAX_PAGE_SIZE);
+        }
+        if (afterId != null) {
+            return ResponseEntity.ok(teacherQueryService.findAfter(filter, afterId, size));
+        }
+        return ResponseEntity.ok(teacherQueryService.findPage(filter, page, size, TeacherQueryService.parseSort(sort)));
+    }
+
+    private ResponseEntity<ErrorResponse> exportFailed(HttpServletResponse response, String what, Exception e) {
+        if (response.isCommitted()) {
+            // Too late for an error body; failing the request aborts the transfer instead
+            throw new IllegalStateException("Failed to export " + what, e);
+        }
+        response.reset();
+        return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to export " + what + ": " + e.getMessage());
+    }
+
     private ResponseEntity<ErrorResponse> createErrorResponse(HttpStatus status, String message) {
         String path = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
                 .getRequest().getRequestURI();
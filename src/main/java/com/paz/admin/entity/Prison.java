@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prisons")
+@Table(name = "prisons", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_prisons_name", columnNames = "name"),
+        @UniqueConstraint(name = "uk_prisons_contact_email", columnNames = "contact_email")
+})
 public class Prison {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +37,10 @@ public class Prison {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public Prison() {
     }
@@ -122,6 +129,14 @@ public class Prison {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,10 +1,14 @@
 package com.paz.admin.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_teachers_email", columnNames = "email")
+})
 public class Teacher {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,7 +20,7 @@ public class Teacher {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
 
     @Column(name = "phone_number")
@@ -29,7 +33,8 @@ public class Teacher {
     private Integer yearsOfExperience;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "prison_id")
+    @JoinColumn(name = "prison_id", foreignKey = @ForeignKey(name = "fk_teachers_prison"))
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private Prison prison;
 
     @Column(name = "created_at")
@@ -38,6 +43,10 @@ public class Teacher {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public Teacher() {
     }
@@ -136,6 +145,14 @@ public class Teacher {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,21 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BulkDeleteRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid VersionedId> items;
+
+    // Getters and Setters
+    public List<VersionedId> getItems() {
+        return items;
+    }
+
+    public void setItems(List<VersionedId> items) {
+        this.items = items;
+    }
+}
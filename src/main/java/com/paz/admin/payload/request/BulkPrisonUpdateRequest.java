@@ -0,0 +1,44 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Sets the non-null fields on every listed prison.
+ */
+public class BulkPrisonUpdateRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid VersionedId> items;
+
+    private String location;
+
+    private Integer capacity;
+
+    // Getters and Setters
+    public List<VersionedId> getItems() {
+        return items;
+    }
+
+    public void setItems(List<VersionedId> items) {
+        this.items = items;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BulkSignupRequest {
+    // Rows are validated one by one so a bad row is reported instead of failing the batch
+    @NotEmpty
+    @Size(max = 500)
+    private List<SignupRequest> users;
+
+    // Getters and Setters
+    public List<SignupRequest> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<SignupRequest> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,54 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Selects teachers either by {@code items} (ids with the versions the client read) or by
+ * {@code fromPrisonId} (every teacher in that prison), and sets the non-null fields on all of
+ * them. Moving by prison only changes {@code prisonId}.
+ */
+public class BulkTeacherUpdateRequest {
+    @Size(max = 1000)
+    private List<@Valid VersionedId> items;
+
+    private Long fromPrisonId;
+
+    private Long prisonId;
+
+    private String specialization;
+
+    // Getters and Setters
+    public List<VersionedId> getItems() {
+        return items;
+    }
+
+    public void setItems(List<VersionedId> items) {
+        this.items = items;
+    }
+
+    public Long getFromPrisonId() {
+        return fromPrisonId;
+    }
+
+    public void setFromPrisonId(Long fromPrisonId) {
+        this.fromPrisonId = fromPrisonId;
+    }
+
+    public Long getPrisonId() {
+        return prisonId;
+    }
+
+    public void setPrisonId(Long prisonId) {
+        this.prisonId = prisonId;
+    }
+
+    public String getSpecialization() {
+        return specialization;
+    }
+
+    public void setSpecialization(String specialization) {
+        this.specialization = specialization;
+    }
+}
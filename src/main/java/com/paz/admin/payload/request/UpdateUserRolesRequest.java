@@ -0,0 +1,17 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.Set;
+
+public class UpdateUserRolesRequest {
+    @NotEmpty
+    private Set<String> role;
+
+    public Set<String> getRole() {
+        return role;
+    }
+
+    public void setRole(Set<String> role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,41 @@
+package com.paz.admin.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A row to change, with the version the client last read; the change is rejected if the row
+ * has been modified since.
+ */
+public class VersionedId {
+    @NotNull
+    private Long id;
+
+    @NotNull
+    private Long version;
+
+    // Constructors
+    public VersionedId() {
+    }
+
+    public VersionedId(Long id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
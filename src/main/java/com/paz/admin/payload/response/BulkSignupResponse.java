@@ -0,0 +1,46 @@
+package com.paz.admin.payload.response;
+
+import java.util.List;
+
+public class BulkSignupResponse {
+    private int created;
+    private int rejected;
+    private List<BulkSignupResult> results;
+
+    // Constructors
+    public BulkSignupResponse() {
+    }
+
+    public BulkSignupResponse(List<BulkSignupResult> results) {
+        this.results = results;
+        this.created = (int) results.stream()
+                .filter(result -> BulkSignupResult.CREATED.equals(result.getStatus()))
+                .count();
+        this.rejected = results.size() - created;
+    }
+
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BulkSignupResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkSignupResult> results) {
+        this.results = results;
+    }
+}
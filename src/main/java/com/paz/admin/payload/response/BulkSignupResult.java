@@ -0,0 +1,73 @@
+package com.paz.admin.payload.response;
+
+public class BulkSignupResult {
+    public static final String CREATED = "created";
+    public static final String REJECTED = "rejected";
+
+    private int index;
+    private String username;
+    private String status;
+    private Long id;
+    private String message;
+
+    // Constructors
+    public BulkSignupResult() {
+    }
+
+    public BulkSignupResult(int index, String username, String status, Long id, String message) {
+        this.index = index;
+        this.username = username;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public static BulkSignupResult created(int index, String username, Long id) {
+        return new BulkSignupResult(index, username, CREATED, id, null);
+    }
+
+    public static BulkSignupResult rejected(int index, String username, String message) {
+        return new BulkSignupResult(index, username, REJECTED, null, message);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.paz.admin.payload.response;
+
+public class BulkWriteResponse {
+    private int affected;
+
+    // Constructors
+    public BulkWriteResponse() {
+    }
+
+    public BulkWriteResponse(int affected) {
+        this.affected = affected;
+    }
+
+    // Getters and Setters
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+}
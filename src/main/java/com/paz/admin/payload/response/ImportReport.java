@@ -0,0 +1,101 @@
+package com.paz.admin.payload.response;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many records were read and imported, and why each rejected
+ * record was rejected. Only the first {@link #MAX_REPORTED_ERRORS} rejections are listed.
+ */
+public class ImportReport {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int received;
+    private int imported;
+    private int rejected;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    // Constructors
+    public ImportReport() {
+    }
+
+    public void reject(int row, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    /**
+     * Duplicates are only found when a batch is written, so errors are sorted once at the end.
+     */
+    public ImportReport finish(int received, int imported) {
+        this.received = received;
+        this.imported = imported;
+        errors.sort(Comparator.comparingInt(RowError::getRow));
+        return this;
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public static class RowError {
+        private int row;
+        private String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
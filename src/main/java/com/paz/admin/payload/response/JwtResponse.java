@@ -2,6 +2,7 @@ package com.paz.admin.payload.response;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private Long id;
     private String username;
@@ -14,6 +15,11 @@ public class JwtResponse {
         this.email = email;
     }
 
+    public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email) {
+        this(accessToken, id, username, email);
+        this.refreshToken = refreshToken;
+    }
+
     public String getAccessToken() {
         return token;
     }
@@ -22,6 +28,14 @@ public class JwtResponse {
         this.token = accessToken;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getTokenType() {
         return type;
     }
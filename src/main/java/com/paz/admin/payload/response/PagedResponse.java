@@ -0,0 +1,86 @@
+package com.paz.admin.payload.response;
+
+import java.util.List;
+
+/**
+ * A page of results. Offset pages fill in the page number and totals; keyset pages leave
+ * them null and set {@code nextAfterId} instead, which is null on the last page.
+ */
+public class PagedResponse<T> {
+    private List<T> content;
+    private Integer page;
+    private int size;
+    private Long totalElements;
+    private Integer totalPages;
+    private Long nextAfterId;
+
+    // Constructors
+    public PagedResponse() {
+    }
+
+    public PagedResponse(List<T> content, Integer page, int size, Long totalElements, Integer totalPages, Long nextAfterId) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public static <T> PagedResponse<T> ofPage(List<T> content, int page, int size, long totalElements, int totalPages) {
+        return new PagedResponse<>(content, page, size, totalElements, totalPages, null);
+    }
+
+    public static <T> PagedResponse<T> ofKeyset(List<T> content, int size, Long nextAfterId) {
+        return new PagedResponse<>(content, null, size, null, null, nextAfterId);
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -0,0 +1,191 @@
+package com.paz.admin.payload.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * System-wide prison occupancy. Occupancy is population / capacity and only counts prisons
+ * with a positive capacity; percentiles are taken over the per-prison occupancy.
+ */
+public class PrisonStatsResponse {
+    private int prisonCount;
+    private long totalCapacity;
+    private long totalPopulation;
+    private Double occupancy;
+    private int overcrowdedCount;
+    private Map<String, Double> occupancyPercentiles;
+    private List<PrisonOccupancy> mostOvercrowded;
+    private List<LocationStats> locations;
+    private LocalDateTime generatedAt;
+
+    // Constructors
+    public PrisonStatsResponse() {
+    }
+
+    public PrisonStatsResponse(int prisonCount, long totalCapacity, long totalPopulation, Double occupancy,
+                               int overcrowdedCount, Map<String, Double> occupancyPercentiles,
+                               List<PrisonOccupancy> mostOvercrowded, List<LocationStats> locations,
+                               LocalDateTime generatedAt) {
+        this.prisonCount = prisonCount;
+        this.totalCapacity = totalCapacity;
+        this.totalPopulation = totalPopulation;
+        this.occupancy = occupancy;
+        this.overcrowdedCount = overcrowdedCount;
+        this.occupancyPercentiles = occupancyPercentiles;
+        this.mostOvercrowded = mostOvercrowded;
+        this.locations = locations;
+        this.generatedAt = generatedAt;
+    }
+
+    // Getters and Setters
+    public int getPrisonCount() {
+        return prisonCount;
+    }
+
+    public void setPrisonCount(int prisonCount) {
+        this.prisonCount = prisonCount;
+    }
+
+    public long getTotalCapacity() {
+        return totalCapacity;
+    }
+
+    public void setTotalCapacity(long totalCapacity) {
+        this.totalCapacity = totalCapacity;
+    }
+
+    public long getTotalPopulation() {
+        return totalPopulation;
+    }
+
+    public void setTotalPopulation(long totalPopulation) {
+        this.totalPopulation = totalPopulation;
+    }
+
+    public Double getOccupancy() {
+        return occupancy;
+    }
+
+    public void setOccupancy(Double occupancy) {
+        this.occupancy = occupancy;
+    }
+
+    public int getOvercrowdedCount() {
+        return overcrowdedCount;
+    }
+
+    public void setOvercrowdedCount(int overcrowdedCount) {
+        this.overcrowdedCount = overcrowdedCount;
+    }
+
+    public Map<String, Double> getOccupancyPercentiles() {
+        return occupancyPercentiles;
+    }
+
+    public void setOccupancyPercentiles(Map<String, Double> occupancyPercentiles) {
+        this.occupancyPercentiles = occupancyPercentiles;
+    }
+
+    public List<PrisonOccupancy> getMostOvercrowded() {
+        return mostOvercrowded;
+    }
+
+    public void setMostOvercrowded(List<PrisonOccupancy> mostOvercrowded) {
+        this.mostOvercrowded = mostOvercrowded;
+    }
+
+    public List<LocationStats> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<LocationStats> locations) {
+        this.locations = locations;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public static class PrisonOccupancy {
+        private Long id;
+        private String name;
+        private String location;
+        private int capacity;
+        private int population;
+        private double occupancy;
+
+        public PrisonOccupancy(Long id, String name, String location, int capacity, int population, double occupancy) {
+            this.id = id;
+            this.name = name;
+            this.location = location;
+            this.capacity = capacity;
+            this.population = population;
+            this.occupancy = occupancy;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getPopulation() {
+            return population;
+        }
+
+        public double getOccupancy() {
+            return occupancy;
+        }
+    }
+
+    public static class LocationStats {
+        private String location;
+        private int prisonCount;
+        private long capacity;
+        private long population;
+        private Double occupancy;
+
+        public LocationStats(String location, int prisonCount, long capacity, long population, Double occupancy) {
+            this.location = location;
+            this.prisonCount = prisonCount;
+            this.capacity = capacity;
+            this.population = population;
+            this.occupancy = occupancy;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public int getPrisonCount() {
+            return prisonCount;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        public Double getOccupancy() {
+            return occupancy;
+        }
+    }
+}
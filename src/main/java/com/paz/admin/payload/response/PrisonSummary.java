@@ -0,0 +1,51 @@
+package com.paz.admin.payload.response;
+
+import com.paz.admin.entity.Prison;
+
+/**
+ * The prison fields embedded in other responses, e.g. a teacher's assignment.
+ */
+public class PrisonSummary {
+    private Long id;
+    private String name;
+    private String location;
+
+    // Constructors
+    public PrisonSummary() {
+    }
+
+    public PrisonSummary(Long id, String name, String location) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+    }
+
+    public static PrisonSummary from(Prison prison) {
+        return prison == null ? null : new PrisonSummary(prison.getId(), prison.getName(), prison.getLocation());
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
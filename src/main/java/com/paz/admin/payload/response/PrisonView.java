@@ -0,0 +1,93 @@
+package com.paz.admin.payload.response;
+
+import com.paz.admin.entity.Prison;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prison as returned by the single-prison lookup. Instances are shared through the prison
+ * cache, so they are read-only; it serializes to the same JSON as the entity.
+ */
+public final class PrisonView {
+    private final Long id;
+    private final String name;
+    private final String location;
+    private final Integer capacity;
+    private final Integer currentPopulation;
+    private final String contactEmail;
+    private final String contactPhone;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    // Constructors
+    public PrisonView(Long id, String name, String location, Integer capacity, Integer currentPopulation,
+                      String contactEmail, String contactPhone, LocalDateTime createdAt,
+                      LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.capacity = capacity;
+        this.currentPopulation = currentPopulation;
+        this.contactEmail = contactEmail;
+        this.contactPhone = contactPhone;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public static PrisonView from(Prison prison) {
+        return new PrisonView(
+                prison.getId(),
+                prison.getName(),
+                prison.getLocation(),
+                prison.getCapacity(),
+                prison.getCurrentPopulation(),
+                prison.getContactEmail(),
+                prison.getContactPhone(),
+                prison.getCreatedAt(),
+                prison.getUpdatedAt(),
+                prison.getVersion());
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public Integer getCurrentPopulation() {
+        return currentPopulation;
+    }
+
+    public String getContactEmail() {
+        return contactEmail;
+    }
+
+    public String getContactPhone() {
+        return contactPhone;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
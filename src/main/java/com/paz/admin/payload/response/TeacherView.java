@@ -0,0 +1,147 @@
+package com.paz.admin.payload.response;
+
+import com.paz.admin.entity.Teacher;
+
+import java.time.LocalDateTime;
+
+/**
+ * Teacher as returned by the API. Built from a teacher whose prison was fetched in the same
+ * query, so serializing it never touches a lazy proxy.
+ */
+public class TeacherView {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private String specialization;
+    private Integer yearsOfExperience;
+    private PrisonSummary prison;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    // Constructors
+    public TeacherView() {
+    }
+
+    public TeacherView(Long id, String firstName, String lastName, String email, String phoneNumber,
+                       String specialization, Integer yearsOfExperience, PrisonSummary prison,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.specialization = specialization;
+        this.yearsOfExperience = yearsOfExperience;
+        this.prison = prison;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public static TeacherView from(Teacher teacher) {
+        return new TeacherView(
+                teacher.getId(),
+                teacher.getFirstName(),
+                teacher.getLastName(),
+                teacher.getEmail(),
+                teacher.getPhoneNumber(),
+                teacher.getSpecialization(),
+                teacher.getYearsOfExperience(),
+                PrisonSummary.from(teacher.getPrison()),
+                teacher.getCreatedAt(),
+                teacher.getUpdatedAt(),
+                teacher.getVersion());
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getSpecialization() {
+        return specialization;
+    }
+
+    public void setSpecialization(String specialization) {
+        this.specialization = specialization;
+    }
+
+    public Integer getYearsOfExperience() {
+        return yearsOfExperience;
+    }
+
+    public void setYearsOfExperience(Integer yearsOfExperience) {
+        this.yearsOfExperience = yearsOfExperience;
+    }
+
+    public PrisonSummary getPrison() {
+        return prison;
+    }
+
+    public void setPrison(PrisonSummary prison) {
+        this.prison = prison;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
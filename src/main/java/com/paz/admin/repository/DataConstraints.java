@@ -0,0 +1,46 @@
+package com.paz.admin.repository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Names of the database constraints that writes rely on, and a lookup of which one a
+ * {@link DataIntegrityViolationException} violated.
+ */
+public final class DataConstraints {
+    public static final String PRISONS_NAME = "uk_prisons_name";
+    public static final String PRISONS_CONTACT_EMAIL = "uk_prisons_contact_email";
+    public static final String TEACHERS_EMAIL = "uk_teachers_email";
+    public static final String TEACHERS_PRISON = "fk_teachers_prison";
+
+    private static final List<String> ALL = List.of(PRISONS_NAME, PRISONS_CONTACT_EMAIL, TEACHERS_EMAIL, TEACHERS_PRISON);
+
+    private DataConstraints() {
+    }
+
+    /**
+     * Returns the known constraint named by the exception. Drivers report the name in different
+     * cases and some wrap it in index names, so the cause chain is searched case-insensitively.
+     */
+    public static Optional<String> violated(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String text = cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (text == null) {
+                continue;
+            }
+            String lower = text.toLowerCase(Locale.ROOT);
+            for (String name : ALL) {
+                if (lower.contains(name)) {
+                    return Optional.of(name);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,15 @@
+package com.paz.admin.repository;
+
+/**
+ * Per-location prison totals, grouped case- and whitespace-insensitively by location.
+ */
+public interface LocationFigures {
+    String getLocationKey();
+    String getLocation();
+    Long getPrisonCount();
+    Long getCapacity();
+    Long getPopulation();
+    // Population of prisons with a capacity, so unrated prisons do not skew occupancy
+    Long getRatedPopulation();
+    Long getOvercrowdedCount();
+}
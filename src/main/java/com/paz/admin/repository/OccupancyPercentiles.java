@@ -0,0 +1,10 @@
+package com.paz.admin.repository;
+
+/**
+ * Nearest-rank percentiles of per-prison occupancy over prisons with a capacity.
+ */
+public interface OccupancyPercentiles {
+    Double getP50();
+    Double getP90();
+    Double getP99();
+}
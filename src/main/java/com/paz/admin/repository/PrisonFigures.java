@@ -0,0 +1,12 @@
+package com.paz.admin.repository;
+
+/**
+ * The columns the occupancy rollup needs from each prison row.
+ */
+public interface PrisonFigures {
+    Long getId();
+    String getName();
+    String getLocation();
+    Integer getCapacity();
+    Integer getCurrentPopulation();
+}
@@ -1,11 +1,51 @@
 package com.paz.admin.repository;
 
 import com.paz.admin.entity.Prison;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface PrisonRepository extends JpaRepository<Prison, Long> {
-    boolean existsByName(String name);
-    boolean existsByContactEmail(String contactEmail);
-}
\ No newline at end of file
+public interface PrisonRepository extends JpaRepository<Prison, Long>, JpaSpecificationExecutor<Prison> {
+    @Query("SELECT p.id AS id, p.name AS name, p.location AS location, p.capacity AS capacity, " +
+           "p.currentPopulation AS currentPopulation FROM Prison p")
+    List<PrisonFigures> findAllFigures();
+
+    @Query("SELECT LOWER(TRIM(p.location)) AS locationKey, MIN(TRIM(p.location)) AS location, " +
+           "COUNT(p) AS prisonCount, COALESCE(SUM(p.capacity), 0) AS capacity, " +
+           "COALESCE(SUM(p.currentPopulation), 0) AS population, " +
+           "COALESCE(SUM(CASE WHEN p.capacity > 0 THEN p.currentPopulation ELSE 0 END), 0) AS ratedPopulation, " +
+           "COALESCE(SUM(CASE WHEN p.capacity > 0 AND p.currentPopulation > p.capacity THEN 1 ELSE 0 END), 0) AS overcrowdedCount " +
+           "FROM Prison p GROUP BY LOWER(TRIM(p.location))")
+    List<LocationFigures> findLocationFigures();
+
+    // percentile_disc is the nearest-rank percentile: the smallest occupancy covering the fraction
+    @Query(value = "SELECT " +
+           "percentile_disc(0.5) WITHIN GROUP (ORDER BY CAST(COALESCE(current_population, 0) AS DOUBLE PRECISION) / capacity) AS p50, " +
+           "percentile_disc(0.9) WITHIN GROUP (ORDER BY CAST(COALESCE(current_population, 0) AS DOUBLE PRECISION) / capacity) AS p90, " +
+           "percentile_disc(0.99) WITHIN GROUP (ORDER BY CAST(COALESCE(current_population, 0) AS DOUBLE PRECISION) / capacity) AS p99 " +
+           "FROM prisons WHERE capacity > 0", nativeQuery = true)
+    OccupancyPercentiles findOccupancyPercentiles();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.location AS location, p.capacity AS capacity, " +
+           "p.currentPopulation AS currentPopulation FROM Prison p WHERE p.capacity > 0 " +
+           "ORDER BY COALESCE(p.currentPopulation, 0) * 1.0 / p.capacity DESC, p.id")
+    List<PrisonFigures> findMostOccupied(Pageable pageable);
+
+    @Query("SELECT p.name FROM Prison p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.contactEmail FROM Prison p WHERE p.contactEmail IN :emails")
+    List<String> findExistingContactEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("DELETE FROM Prison p WHERE p.id IN :ids AND p.version = :version")
+    int deleteAtVersion(@Param("ids") Collection<Long> ids, @Param("version") Long version);
+}
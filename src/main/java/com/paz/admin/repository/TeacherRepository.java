@@ -1,14 +1,60 @@
 package com.paz.admin.repository;
 
+import com.paz.admin.entity.Prison;
 import com.paz.admin.entity.Teacher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
-    boolean existsByEmail(String email);
-    List<Teacher> findByPrisonId(Long prisonId);
-    List<Teacher> findBySpecialization(String specialization);
-}
\ No newline at end of file
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, JpaSpecificationExecutor<Teacher> {
+    // Teacher.prison is LAZY; lookups that are returned to clients fetch it in the same query
+
+    @Override
+    @EntityGraph(attributePaths = "prison")
+    Optional<Teacher> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "prison")
+    Page<Teacher> findAll(Specification<Teacher> spec, Pageable pageable);
+
+    @Query("SELECT t.email FROM Teacher t WHERE t.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Bulk statements skip the persistence context, so they bump the version themselves
+
+    @Modifying
+    @Query("UPDATE Teacher t SET t.prison = :to, t.version = t.version + 1, t.updatedAt = :now " +
+           "WHERE t.prison.id = :fromPrisonId")
+    int moveToPrison(@Param("fromPrisonId") Long fromPrisonId, @Param("to") Prison to, @Param("now") LocalDateTime now);
+
+    // Runs before prisons are deleted so the unassigned teachers get a new version; the
+    // database's ON DELETE SET NULL would clear prison_id without one
+    @Modifying
+    @Query("UPDATE Teacher t SET t.prison = null, t.version = t.version + 1, t.updatedAt = :now " +
+           "WHERE t.prison.id IN :prisonIds")
+    int unassignPrisons(@Param("prisonIds") Collection<Long> prisonIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Teacher t WHERE t.id IN :ids AND t.version = :version")
+    int deleteAtVersion(@Param("ids") Collection<Long> ids, @Param("version") Long version);
+
+    // One statement, so there is no window between checking the row exists and deleting it
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Teacher t WHERE t.id = :id")
+    int deleteAndCount(@Param("id") Long id);
+}
@@ -1,15 +1,64 @@
 package com.paz.admin.repository;
 
 import com.paz.admin.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    String SUMMARY_SELECT = "select u.id as id, u.username as username, u.email as email, " +
+            "u.firstName as firstName, u.lastName as lastName, u.enabled as enabled from User u ";
+
+    // Every filter is optional; q must already be lower-cased and wrapped in % wildcards
+    // :q has its LIKE wildcards escaped with a backslash
+    String SUMMARY_FILTER = "where (:q is null or lower(u.username) like :q escape '\\' " +
+            "or lower(u.email) like :q escape '\\' " +
+            "or lower(u.firstName) like :q escape '\\' or lower(u.lastName) like :q escape '\\') " +
+            "and (:role is null or exists (select 1 from User u2 join u2.roles r2 where u2.id = u.id and r2.name = :role)) " +
+            "and (:enabled is null or u.enabled = :enabled) ";
+
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Set-based uniqueness checks for bulk signup: one query each instead of one per row
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query(value = SUMMARY_SELECT + SUMMARY_FILTER,
+           countQuery = "select count(u) from User u " + SUMMARY_FILTER)
+    Page<UserSummary> findSummaries(@Param("q") String q, @Param("role") String role,
+                                    @Param("enabled") Boolean enabled, Pageable pageable);
+
+    // Keyset page: the next rows after the given id, in id order, without a count query
+    @Query(SUMMARY_SELECT + SUMMARY_FILTER + "and u.id > :afterId order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("q") String q, @Param("role") String role,
+                                         @Param("enabled") Boolean enabled, @Param("afterId") long afterId,
+                                         Pageable limit);
+
+    @Query("select u.id as userId, r.name as roleName from User u join u.roles r where u.id in :ids")
+    List<UserRoleName> findRoleNames(@Param("ids") Collection<Long> ids);
+
+    // Compare-and-set so a concurrent password change is never overwritten by a rehash
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newPassword, u.updatedAt = LOCAL DATETIME " +
+           "where u.id = :id and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.paz.admin.repository;
+
+/**
+ * One (user id, role name) pair, used to load the roles of a page of users in one query.
+ */
+public interface UserRoleName {
+    Long getUserId();
+    String getRoleName();
+}
@@ -0,0 +1,13 @@
+package com.paz.admin.repository;
+
+/**
+ * Read-only projection of a user row for listings; never carries the password hash.
+ */
+public interface UserSummary {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFirstName();
+    String getLastName();
+    Boolean getEnabled();
+}
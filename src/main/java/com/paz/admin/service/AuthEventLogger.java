@@ -0,0 +1,181 @@
+package com.paz.admin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured stream of authentication events (success, failure, lockout) written off the
+ * request thread.
+ *
+ * Events go into a bounded queue drained by a single daemon thread into the
+ * {@code com.paz.admin.auth.events} logger as key=value lines. Login threads never block on
+ * the console: when the queue is full the event is dropped and counted in
+ * {@code auth.events.dropped}. {@code paz.app.authEvents.level} selects which events are
+ * recorded at all: OFF, FAILURES (failures and lockouts) or ALL.
+ */
+@Service
+public class AuthEventLogger {
+    private static final Logger logger = LoggerFactory.getLogger(AuthEventLogger.class);
+
+    private static final Logger eventLogger = LoggerFactory.getLogger("com.paz.admin.auth.events");
+
+    public enum Type { SUCCESS, FAILURE, LOCKOUT }
+
+    public enum Level { OFF, FAILURES, ALL }
+
+    private final BlockingQueue<AuthEvent> queue;
+
+    private final Level level;
+
+    private final Counter droppedEvents;
+
+    private Thread consumer;
+
+    private volatile boolean running;
+
+    public AuthEventLogger(MeterRegistry meterRegistry,
+                           @Value("${paz.app.authEvents.queueCapacity:4096}") int queueCapacity,
+                           @Value("${paz.app.authEvents.level:ALL}") Level level) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.level = level;
+        this.droppedEvents = Counter.builder("auth.events.dropped")
+                .description("Auth events dropped because the event queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.events.queued", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (level == Level.OFF) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::drain, "auth-event-logger");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+            consumer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    public void success(String username, String clientIp, long latencyNanos) {
+        if (level == Level.ALL) {
+            publish(new AuthEvent(Type.SUCCESS, username, clientIp, latencyNanos, null));
+        }
+    }
+
+    public void failure(String username, String clientIp, long latencyNanos, String reason) {
+        if (level != Level.OFF) {
+            publish(new AuthEvent(Type.FAILURE, username, clientIp, latencyNanos, reason));
+        }
+    }
+
+    public void lockout(String username, String clientIp, long latencyNanos, long retryAfterSeconds) {
+        if (level != Level.OFF) {
+            publish(new AuthEvent(Type.LOCKOUT, username, clientIp, latencyNanos, "retryAfter=" + retryAfterSeconds + "s"));
+        }
+    }
+
+    public long getDroppedCount() {
+        return (long) droppedEvents.count();
+    }
+
+    private void publish(AuthEvent event) {
+        if (!queue.offer(event)) {
+            droppedEvents.increment();
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                // Flush what is already queued before exiting
+                AuthEvent event;
+                while ((event = queue.poll()) != null) {
+                    write(event);
+                }
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write auth event: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(AuthEvent event) {
+        if (event.type == Type.SUCCESS) {
+            eventLogger.info("event={} user={} ip={} latencyMs={} at={}",
+                    event.type, quoted(event.username), quoted(event.clientIp), event.latencyMillis(), event.timestamp);
+        } else {
+            eventLogger.warn("event={} user={} ip={} latencyMs={} reason={} at={}",
+                    event.type, quoted(event.username), quoted(event.clientIp), event.latencyMillis(),
+                    quoted(event.reason), event.timestamp);
+        }
+    }
+
+    /**
+     * Usernames come straight from the login request, so every free-text value is written as a
+     * quoted string with quotes, backslashes and control characters escaped. A crafted value
+     * can then neither start a new line nor add key=value pairs of its own.
+     */
+    static String quoted(String value) {
+        if (value == null) {
+            return "-";
+        }
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else if (c == '\r') {
+                out.append("\\r");
+            } else if (Character.isISOControl(c)) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static final class AuthEvent {
+        private final Type type;
+        private final String username;
+        private final String clientIp;
+        private final long latencyNanos;
+        private final String reason;
+        private final Instant timestamp = Instant.now();
+
+        private AuthEvent(Type type, String username, String clientIp, long latencyNanos, String reason) {
+            this.type = type;
+            this.username = username;
+            this.clientIp = clientIp;
+            this.latencyNanos = latencyNanos;
+            this.reason = reason;
+        }
+
+        private double latencyMillis() {
+            return latencyNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.paz.admin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+
+/**
+ * Streams every prison or teacher to an output stream as CSV or NDJSON.
+ *
+ * Rows come from a forward-only JDBC cursor with a fetch size of
+ * {@code paz.app.export.fetchSize}, inside a read-only transaction so the PostgreSQL driver
+ * actually fetches in chunks, and each row is written out as soon as it is read. Heap use is
+ * bounded by one fetch and the output buffer, whatever the table size. The columns match the
+ * ones {@link BulkImportService} reads, plus ids, timestamps and versions, which imports ignore.
+ */
+@Service
+public class BulkExportService {
+    private static final String[] PRISON_COLUMNS = {"id", "name", "location", "capacity", "currentPopulation",
+            "contactEmail", "contactPhone", "createdAt", "updatedAt", "version"};
+
+    private static final String SELECT_PRISONS =
+            "SELECT id, name, location, capacity, current_population, contact_email, contact_phone, " +
+            "created_at, updated_at, version FROM prisons ORDER BY id";
+
+    private static final String[] TEACHER_COLUMNS = {"id", "firstName", "lastName", "email", "phoneNumber",
+            "specialization", "yearsOfExperience", "prisonId", "prisonName", "createdAt", "updatedAt", "version"};
+
+    private static final String SELECT_TEACHERS =
+            "SELECT t.id, t.first_name, t.last_name, t.email, t.phone_number, t.specialization, " +
+            "t.years_of_experience, t.prison_id, p.name, t.created_at, t.updated_at, t.version " +
+            "FROM teachers t LEFT JOIN prisons p ON p.id = t.prison_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paz.app.export.fetchSize:1000}")
+    private int fetchSize;
+
+    @Transactional(readOnly = true)
+    public int exportPrisons(ExchangeFormat format, OutputStream out) throws IOException {
+        return export(format, out, SELECT_PRISONS, null, PRISON_COLUMNS);
+    }
+
+    /**
+     * Every teacher ordered by id, or only those of {@code prisonId} when it is given.
+     */
+    @Transactional(readOnly = true)
+    public int exportTeachers(ExchangeFormat format, Long prisonId, OutputStream out) throws IOException {
+        String sql = SELECT_TEACHERS + (prisonId != null ? " WHERE t.prison_id = ?" : "") + " ORDER BY t.id";
+        return export(format, out, sql, prisonId, TEACHER_COLUMNS);
+    }
+
+    private int export(ExchangeFormat format, OutputStream out, String sql, Long parameter, String[] columns)
+            throws IOException {
+        int[] count = {0};
+        try (ExportRows rows = ExportRows.open(out, format, objectMapper, columns)) {
+            Object[] values = new Object[columns.length];
+            RowCallbackHandler writeRow = rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    rows.write(values);
+                } catch (IOException e) {
+                    // Usually the client went away; stop reading instead of draining the cursor
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            };
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(fetchSize);
+                if (parameter != null) {
+                    statement.setLong(1, parameter);
+                }
+                return statement;
+            }, writeRow);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+}
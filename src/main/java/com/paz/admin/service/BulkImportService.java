@@ -0,0 +1,389 @@
+package com.paz.admin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paz.admin.payload.response.ImportReport;
+import com.paz.admin.repository.PrisonFigures;
+import com.paz.admin.repository.PrisonRepository;
+import com.paz.admin.repository.TeacherRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams prisons or teachers out of a CSV or NDJSON body into the database.
+ *
+ * Records are validated as they are read and collected into batches of {@link #BATCH_SIZE}.
+ * Each batch is checked for existing names and emails with one set-based query per column and
+ * written with a JDBC batch insert, so memory stays bounded by the batch however large the body
+ * is. Earlier batches are already written when a later one is checked, which catches duplicates
+ * across batches too. Teacher prison references are resolved from a map of all prisons loaded
+ * once per import.
+ *
+ * Rejected records are reported with their record number; everything else is imported in one
+ * transaction, so a malformed body or a concurrent write that trips a constraint imports nothing.
+ */
+@Service
+public class BulkImportService {
+    static final int BATCH_SIZE = 1000;
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    private static final String INSERT_PRISON =
+            "INSERT INTO prisons (name, location, capacity, current_population, contact_email, contact_phone, " +
+            "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TEACHER =
+            "INSERT INTO teachers (first_name, last_name, email, phone_number, specialization, years_of_experience, " +
+            "prison_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private PrisonRepository prisonRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Columns: name, location, capacity, currentPopulation, contactEmail, contactPhone.
+     */
+    @Transactional
+    public ImportReport importPrisons(InputStream body, MediaType contentType) throws IOException {
+        ImportRows rows = ImportRows.open(body, charset(contentType), ExchangeFormat.of(contentType), objectMapper);
+        ImportReport report = new ImportReport();
+        Batch<PrisonRow> batch = new Batch<>();
+        int imported = 0;
+
+        Map<String, String> record;
+        while ((record = rows.next()) != null) {
+            PrisonRow prison = new PrisonRow(rows.row(), record);
+            String error = prison.validate();
+            if (error == null && !batch.keys.add("name:" + prison.name)) {
+                error = "Prison name is repeated in the import";
+            }
+            if (error == null && prison.contactEmail != null && !batch.keys.add("email:" + prison.contactEmail)) {
+                error = "Contact email is repeated in the import";
+            }
+            if (error != null) {
+                report.reject(prison.row, error);
+                continue;
+            }
+            batch.rows.add(prison);
+            if (batch.rows.size() == BATCH_SIZE) {
+                imported += writePrisons(batch, report);
+            }
+        }
+        imported += writePrisons(batch, report);
+        return report.finish(rows.row(), imported);
+    }
+
+    /**
+     * Columns: firstName, lastName, email, phoneNumber, specialization, yearsOfExperience, and
+     * optionally the prison as prisonId or prisonName.
+     */
+    @Transactional
+    public ImportReport importTeachers(InputStream body, MediaType contentType) throws IOException {
+        ImportRows rows = ImportRows.open(body, charset(contentType), ExchangeFormat.of(contentType), objectMapper);
+        PrisonDirectory prisons = new PrisonDirectory(prisonRepository.findAllFigures());
+        ImportReport report = new ImportReport();
+        Batch<TeacherRow> batch = new Batch<>();
+        int imported = 0;
+
+        Map<String, String> record;
+        while ((record = rows.next()) != null) {
+            TeacherRow teacher = new TeacherRow(rows.row(), record);
+            String error = teacher.validate(prisons);
+            if (error == null && !batch.keys.add(teacher.email)) {
+                error = "Email is repeated in the import";
+            }
+            if (error != null) {
+                report.reject(teacher.row, error);
+                continue;
+            }
+            batch.rows.add(teacher);
+            if (batch.rows.size() == BATCH_SIZE) {
+                imported += writeTeachers(batch, report);
+            }
+        }
+        imported += writeTeachers(batch, report);
+        return report.finish(rows.row(), imported);
+    }
+
+    private int writePrisons(Batch<PrisonRow> batch, ImportReport report) {
+        if (batch.rows.isEmpty()) {
+            return 0;
+        }
+        Set<String> takenNames = new HashSet<>(prisonRepository.findExistingNames(
+                batch.rows.stream().map(prison -> prison.name).collect(Collectors.toList())));
+        List<String> emails = batch.rows.stream()
+                .map(prison -> prison.contactEmail).filter(email -> email != null).collect(Collectors.toList());
+        Set<String> takenEmails = emails.isEmpty() ? Set.of()
+                : new HashSet<>(prisonRepository.findExistingContactEmails(emails));
+
+        List<PrisonRow> accepted = new ArrayList<>(batch.rows.size());
+        for (PrisonRow prison : batch.rows) {
+            if (takenNames.contains(prison.name)) {
+                report.reject(prison.row, "Prison name is already taken");
+            } else if (prison.contactEmail != null && takenEmails.contains(prison.contactEmail)) {
+                report.reject(prison.row, "Contact email is already in use");
+            } else {
+                accepted.add(prison);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PRISON, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PrisonRow prison = accepted.get(i);
+                ps.setString(1, prison.name);
+                ps.setString(2, prison.location);
+                ps.setObject(3, prison.capacity, Types.INTEGER);
+                ps.setInt(4, prison.currentPopulation != null ? prison.currentPopulation : 0);
+                ps.setString(5, prison.contactEmail);
+                ps.setString(6, prison.contactPhone);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return accepted.size();
+            }
+        });
+        batch.clear();
+        return accepted.size();
+    }
+
+    private int writeTeachers(Batch<TeacherRow> batch, ImportReport report) {
+        if (batch.rows.isEmpty()) {
+            return 0;
+        }
+        Set<String> takenEmails = new HashSet<>(teacherRepository.findExistingEmails(
+                batch.rows.stream().map(teacher -> teacher.email).collect(Collectors.toList())));
+
+        List<TeacherRow> accepted = new ArrayList<>(batch.rows.size());
+        for (TeacherRow teacher : batch.rows) {
+            if (takenEmails.contains(teacher.email)) {
+                report.reject(teacher.row, "Email is already in use");
+            } else {
+                accepted.add(teacher);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TEACHER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TeacherRow teacher = accepted.get(i);
+                ps.setString(1, teacher.firstName);
+                ps.setString(2, teacher.lastName);
+                ps.setString(3, teacher.email);
+                ps.setString(4, teacher.phoneNumber);
+                ps.setString(5, teacher.specialization);
+                ps.setObject(6, teacher.yearsOfExperience, Types.INTEGER);
+                ps.setObject(7, teacher.prisonId, Types.BIGINT);
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return accepted.size();
+            }
+        });
+        batch.clear();
+        return accepted.size();
+    }
+
+    private static Charset charset(MediaType contentType) {
+        return contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+
+    private static boolean isValidEmail(String email) {
+        return EMAIL.matcher(email).matches();
+    }
+
+    /**
+     * Parses an optional whole number column, or throws with a message for the report.
+     */
+    private static Integer parseInteger(Map<String, String> record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " must be a whole number");
+        }
+    }
+
+    private static final class Batch<T> {
+        private final List<T> rows = new ArrayList<>(BATCH_SIZE);
+        // Names and emails seen in this batch; earlier batches are caught by the existence queries
+        private final Set<String> keys = new HashSet<>();
+
+        private void clear() {
+            rows.clear();
+            keys.clear();
+        }
+    }
+
+    private static final class PrisonRow {
+        private final int row;
+        private final Map<String, String> record;
+        private String name;
+        private String location;
+        private Integer capacity;
+        private Integer currentPopulation;
+        private String contactEmail;
+        private String contactPhone;
+
+        private PrisonRow(int row, Map<String, String> record) {
+            this.row = row;
+            this.record = record;
+        }
+
+        private String validate() {
+            name = record.get("name");
+            location = record.get("location");
+            contactEmail = record.get("contactEmail");
+            contactPhone = record.get("contactPhone");
+            if (name == null) {
+                return "Prison name is required";
+            }
+            if (location == null) {
+                return "Location is required";
+            }
+            try {
+                capacity = parseInteger(record, "capacity");
+                currentPopulation = parseInteger(record, "currentPopulation");
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+            if (capacity != null && capacity <= 0) {
+                return "Capacity must be greater than 0";
+            }
+            if (currentPopulation != null && currentPopulation < 0) {
+                return "Current population cannot be negative";
+            }
+            if (contactEmail != null && !isValidEmail(contactEmail)) {
+                return "Invalid contact email format";
+            }
+            return null;
+        }
+    }
+
+    private static final class TeacherRow {
+        private final int row;
+        private final Map<String, String> record;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String phoneNumber;
+        private String specialization;
+        private Integer yearsOfExperience;
+        private Long prisonId;
+
+        private TeacherRow(int row, Map<String, String> record) {
+            this.row = row;
+            this.record = record;
+        }
+
+        private String validate(PrisonDirectory prisons) {
+            firstName = record.get("firstName");
+            lastName = record.get("lastName");
+            email = record.get("email");
+            phoneNumber = record.get("phoneNumber");
+            specialization = record.get("specialization");
+            if (firstName == null) {
+                return "First name is required";
+            }
+            if (lastName == null) {
+                return "Last name is required";
+            }
+            if (email == null) {
+                return "Email is required";
+            }
+            if (!isValidEmail(email)) {
+                return "Invalid email format";
+            }
+            try {
+                yearsOfExperience = parseInteger(record, "yearsOfExperience");
+                prisonId = prisons.resolve(record.get("prisonId"), record.get("prisonName"));
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+            if (yearsOfExperience != null && yearsOfExperience < 0) {
+                return "Years of experience cannot be negative";
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Every prison's id and name, so teacher rows never query for their prison.
+     */
+    private static final class PrisonDirectory {
+        private final Set<Long> ids = new HashSet<>();
+        private final Map<String, Long> idsByName = new HashMap<>();
+
+        private PrisonDirectory(List<PrisonFigures> prisons) {
+            for (PrisonFigures prison : prisons) {
+                ids.add(prison.getId());
+                idsByName.put(prison.getName(), prison.getId());
+            }
+        }
+
+        private Long resolve(String id, String name) {
+            Long byId = null;
+            if (id != null) {
+                try {
+                    byId = Long.valueOf(id);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("prisonId must be a whole number");
+                }
+                if (!ids.contains(byId)) {
+                    throw new IllegalArgumentException("Prison not found");
+                }
+            }
+            if (name == null) {
+                return byId;
+            }
+            Long byName = idsByName.get(name);
+            if (byName == null) {
+                throw new IllegalArgumentException("Prison not found");
+            }
+            if (byId != null && !byId.equals(byName)) {
+                throw new IllegalArgumentException("prisonId and prisonName refer to different prisons");
+            }
+            return byName;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Role;
+import com.paz.admin.payload.request.SignupRequest;
+import com.paz.admin.payload.response.BulkSignupResult;
+import com.paz.admin.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many users in one call, e.g. a prison's teacher roster.
+ *
+ * Rows that fail validation, repeat a username or email within the batch, or collide with an
+ * existing user are rejected individually; the rest are created together. Uniqueness is
+ * checked with one set-based query per column, roles come from the {@link RoleCatalog},
+ * passwords are hashed in parallel on a bounded pool, and users and their role links are
+ * written with JDBC batch inserts.
+ *
+ * Only the two inserts run in a transaction: validation, the uniqueness queries and hashing
+ * happen before it opens, so a large batch does not hold a connection while BCrypt runs. A row
+ * taken by a concurrent signup in between fails the insert, which the caller reports as 409.
+ */
+@Service
+public class BulkUserProvisioningService {
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password, first_name, last_name, enabled, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleCatalog roleCatalog;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    @Qualifier("bulkPasswordHashExecutor")
+    private Executor bulkPasswordHashExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public List<BulkSignupResult> provision(List<SignupRequest> requests) {
+        BulkSignupResult[] results = new BulkSignupResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SignupRequest request = requests.get(i);
+            String error = validate(request);
+            if (error == null && !batchUsernames.add(request.getUsername())) {
+                error = "Error: Duplicate username in batch!";
+            }
+            if (error == null && !batchEmails.add(request.getEmail())) {
+                error = "Error: Duplicate email in batch!";
+            }
+            if (error != null) {
+                results[i] = BulkSignupResult.rejected(i, request != null ? request.getUsername() : null, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        accepted = rejectExisting(requests, accepted, results);
+
+        Map<Integer, Set<Role>> rowRoles = new HashMap<>();
+        List<Integer> resolved = new ArrayList<>();
+        for (int i : accepted) {
+            try {
+                rowRoles.put(i, roleCatalog.resolve(requests.get(i).getRole()));
+                resolved.add(i);
+            } catch (RuntimeException e) {
+                results[i] = BulkSignupResult.rejected(i, requests.get(i).getUsername(), e.getMessage());
+            }
+        }
+
+        if (!resolved.isEmpty()) {
+            List<String> hashes = hashPasswords(requests, resolved);
+            List<Long> ids = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Long> created = insertUsers(requests, resolved, hashes);
+                insertUserRoles(resolved, created, rowRoles);
+                return created;
+            });
+            for (int k = 0; k < resolved.size(); k++) {
+                int i = resolved.get(k);
+                results[i] = BulkSignupResult.created(i, requests.get(i).getUsername(), ids.get(k));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private String validate(SignupRequest request) {
+        if (request == null) {
+            return "Error: Empty row!";
+        }
+        Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Error: " + violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private List<Integer> rejectExisting(List<SignupRequest> requests, List<Integer> accepted,
+                                         BulkSignupResult[] results) {
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                accepted.stream().map(i -> requests.get(i).getUsername()).collect(Collectors.toList())));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                accepted.stream().map(i -> requests.get(i).getEmail()).collect(Collectors.toList())));
+
+        List<Integer> remaining = new ArrayList<>();
+        for (int i : accepted) {
+            SignupRequest request = requests.get(i);
+            if (takenUsernames.contains(request.getUsername())) {
+                results[i] = BulkSignupResult.rejected(i, request.getUsername(), "Error: Username is already taken!");
+            } else if (takenEmails.contains(request.getEmail())) {
+                results[i] = BulkSignupResult.rejected(i, request.getUsername(), "Error: Email is already in use!");
+            } else {
+                remaining.add(i);
+            }
+        }
+        return remaining;
+    }
+
+    private List<String> hashPasswords(List<SignupRequest> requests, List<Integer> rows) {
+        List<CompletableFuture<String>> hashes = rows.stream()
+                .map(i -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(requests.get(i).getPassword()), bulkPasswordHashExecutor))
+                .collect(Collectors.toList());
+        return hashes.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private List<Long> insertUsers(List<SignupRequest> requests, List<Integer> rows, List<String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_USER, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int k) throws SQLException {
+                        SignupRequest request = requests.get(rows.get(k));
+                        ps.setString(1, request.getUsername());
+                        ps.setString(2, request.getEmail());
+                        ps.setString(3, hashes.get(k));
+                        ps.setString(4, request.getFirstName());
+                        ps.setString(5, request.getLastName());
+                        ps.setBoolean(6, true);
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .collect(Collectors.toList());
+    }
+
+    private void insertUserRoles(List<Integer> rows, List<Long> ids, Map<Integer, Set<Role>> rowRoles) {
+        List<Object[]> links = new ArrayList<>();
+        for (int k = 0; k < rows.size(); k++) {
+            for (Role role : rowRoles.get(rows.get(k))) {
+                links.add(new Object[] {ids.get(k), role.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, links);
+    }
+}
@@ -0,0 +1,189 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Prison;
+import com.paz.admin.entity.Teacher;
+import com.paz.admin.payload.request.BulkPrisonUpdateRequest;
+import com.paz.admin.payload.request.BulkTeacherUpdateRequest;
+import com.paz.admin.payload.request.VersionedId;
+import com.paz.admin.repository.PrisonRepository;
+import com.paz.admin.repository.TeacherRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Set-based updates and deletes of many teachers or prisons in one transaction.
+ *
+ * Rows are addressed by id together with the version the client read. The ids are grouped by
+ * version and each group is changed with one {@code WHERE id IN (...) AND version = ?}
+ * statement, so a typical request (rows read at the same time) costs one statement however
+ * many rows it names. If any row has been changed or deleted since it was read, fewer rows
+ * match than were named; the whole request then fails with an optimistic locking failure and
+ * rolls back, and the client re-reads and retries.
+ */
+@Service
+public class BulkWriteService {
+    public static final int MAX_ITEMS = 1000;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private PrisonRepository prisonRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Applies the request's non-null fields to the listed teachers, or moves every teacher in
+     * {@code fromPrisonId} to {@code prisonId}. Returns the number of teachers changed.
+     */
+    @Transactional
+    public int updateTeachers(BulkTeacherUpdateRequest request) {
+        boolean byIds = request.getItems() != null && !request.getItems().isEmpty();
+        if (byIds == (request.getFromPrisonId() != null)) {
+            throw new IllegalArgumentException("Give either items or fromPrisonId");
+        }
+        if (!byIds) {
+            if (request.getPrisonId() == null || request.getSpecialization() != null) {
+                throw new IllegalArgumentException("Moving teachers by prison only takes a prisonId");
+            }
+            // Moving everyone out of a prison has no per-row versions to check
+            return teacherRepository.moveToPrison(request.getFromPrisonId(),
+                    prisonRepository.getReferenceById(request.getPrisonId()), LocalDateTime.now());
+        }
+
+        String specialization = StringUtils.hasText(request.getSpecialization())
+                ? request.getSpecialization().trim() : null;
+        if (request.getPrisonId() == null && specialization == null) {
+            throw new IllegalArgumentException("Nothing to update: give prisonId or specialization");
+        }
+        // An unknown prison fails the update on fk_teachers_prison
+        Prison prison = request.getPrisonId() != null ? prisonRepository.getReferenceById(request.getPrisonId()) : null;
+        return updateAtVersions(Teacher.class, request.getItems(), "teachers", (update, root) -> {
+            if (prison != null) {
+                update.set(root.<Prison>get("prison"), prison);
+            }
+            if (specialization != null) {
+                update.set(root.<String>get("specialization"), specialization);
+            }
+        });
+    }
+
+    @Transactional
+    public int deleteTeachers(List<VersionedId> items) {
+        return deleteAtVersions(idsByVersion(items), items.size(), "teachers", teacherRepository::deleteAtVersion);
+    }
+
+    /**
+     * Applies the request's non-null fields to the listed prisons. Returns the number changed.
+     */
+    @Transactional
+    public int updatePrisons(BulkPrisonUpdateRequest request) {
+        String location = request.getLocation() != null ? request.getLocation().trim() : null;
+        Integer capacity = request.getCapacity();
+        if (location == null && capacity == null) {
+            throw new IllegalArgumentException("Nothing to update: give location or capacity");
+        }
+        if (location != null && location.isEmpty()) {
+            throw new IllegalArgumentException("Location is required");
+        }
+        if (capacity != null && capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        return updateAtVersions(Prison.class, request.getItems(), "prisons", (update, root) -> {
+            if (location != null) {
+                update.set(root.<String>get("location"), location);
+            }
+            if (capacity != null) {
+                update.set(root.<Integer>get("capacity"), capacity);
+            }
+        });
+    }
+
+    /**
+     * Deletes the listed prisons. Their teachers are unassigned first, in the same transaction,
+     * so they stay and their versions move on; a failed delete rolls the unassignment back.
+     */
+    @Transactional
+    public int deletePrisons(List<VersionedId> items) {
+        Map<Long, List<Long>> idsByVersion = idsByVersion(items);
+        teacherRepository.unassignPrisons(idsByVersion.values().stream().flatMap(List::stream).toList(),
+                LocalDateTime.now());
+        return deleteAtVersions(idsByVersion, items.size(), "prisons", prisonRepository::deleteAtVersion);
+    }
+
+    private <T> int updateAtVersions(Class<T> type, List<VersionedId> items, String what,
+                                     BiConsumer<CriteriaUpdate<T>, Root<T>> assignments) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (Map.Entry<Long, List<Long>> group : idsByVersion(items).entrySet()) {
+            CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+            Root<T> root = update.from(type);
+            assignments.accept(update, root);
+            update.set(root.<LocalDateTime>get("updatedAt"), now);
+            update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+            update.where(root.get("id").in(group.getValue()), cb.equal(root.get("version"), group.getKey()));
+            updated += entityManager.createQuery(update).executeUpdate();
+        }
+        return checkAllMatched(items.size(), updated, what);
+    }
+
+    private int deleteAtVersions(Map<Long, List<Long>> idsByVersion, int expected, String what,
+                                 BiFunction<Collection<Long>, Long, Integer> deleteAtVersion) {
+        int deleted = 0;
+        for (Map.Entry<Long, List<Long>> group : idsByVersion.entrySet()) {
+            deleted += deleteAtVersion.apply(group.getValue(), group.getKey());
+        }
+        return checkAllMatched(expected, deleted, what);
+    }
+
+    private static Map<Long, List<Long>> idsByVersion(List<VersionedId> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("items must not be empty");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_ITEMS + " items can be changed at once");
+        }
+        Set<Long> seen = new HashSet<>();
+        Map<Long, List<Long>> idsByVersion = new TreeMap<>();
+        for (VersionedId item : items) {
+            if (item == null || item.getId() == null || item.getVersion() == null) {
+                throw new IllegalArgumentException("Every item needs an id and a version");
+            }
+            if (!seen.add(item.getId())) {
+                throw new IllegalArgumentException("Id " + item.getId() + " is listed more than once");
+            }
+            idsByVersion.computeIfAbsent(item.getVersion(), version -> new ArrayList<>()).add(item.getId());
+        }
+        return idsByVersion;
+    }
+
+    private static int checkAllMatched(int expected, int matched, String what) {
+        if (matched != expected) {
+            // Thrown inside the transaction, so the rows that did match are rolled back too
+            throw new OptimisticLockingFailureException((expected - matched) + " of " + expected + " " + what
+                    + " were modified or deleted since they were read; nothing was changed");
+        }
+        return matched;
+    }
+}
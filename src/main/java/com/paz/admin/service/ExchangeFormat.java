@@ -0,0 +1,54 @@
+package com.paz.admin.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Body formats accepted by the bulk import endpoints and produced by the export endpoints.
+ * Both use the same column names, so an export can be imported again.
+ */
+public enum ExchangeFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExchangeFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExchangeFormat of(MediaType contentType) {
+        for (ExchangeFormat format : values()) {
+            if (contentType.isCompatibleWith(format.mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + contentType);
+    }
+
+    /**
+     * Looks a format up by its file extension, e.g. a {@code format=csv} request parameter.
+     */
+    public static ExchangeFormat named(String name) {
+        for (ExchangeFormat format : values()) {
+            if (format.extension.equals(name.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("format must be csv or ndjson");
+    }
+}
@@ -0,0 +1,142 @@
+package com.paz.admin.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Writes export records one at a time in the layout {@link ImportRows} reads: a CSV header row
+ * followed by RFC 4180 records, or one JSON object per line. Timestamps are written as ISO-8601
+ * local date-times and nulls as empty CSV fields or JSON nulls.
+ *
+ * CSV text that a spreadsheet would run as a formula (starting with =, +, -, @, tab or carriage
+ * return) is written with a leading apostrophe, so a name like {@code =HYPERLINK(...)} opens
+ * as text. Re-importing such a file keeps the apostrophe; use NDJSON for exact round trips.
+ */
+abstract class ExportRows implements AutoCloseable {
+    final String[] columns;
+
+    private ExportRows(String[] columns) {
+        this.columns = columns;
+    }
+
+    static ExportRows open(OutputStream out, ExchangeFormat format, ObjectMapper objectMapper,
+                           String... columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        return format == ExchangeFormat.CSV
+                ? new Csv(writer, columns)
+                : new NdJson(objectMapper.getFactory().createGenerator(writer), columns);
+    }
+
+    /**
+     * Writes one record; {@code values} line up with the columns the writer was opened with.
+     */
+    abstract void write(Object[] values) throws IOException;
+
+    /**
+     * Flushes buffered output; the underlying stream is left open for the caller to finish.
+     */
+    @Override
+    public abstract void close() throws IOException;
+
+    private static Object plain(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private static final class Csv extends ExportRows {
+        private final Writer writer;
+
+        private Csv(Writer writer, String[] columns) throws IOException {
+            super(columns);
+            this.writer = writer;
+            write(columns);
+        }
+
+        @Override
+        void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = plain(values[i]);
+                if (value instanceof String text) {
+                    writeField(neutralized(text));
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        static String neutralized(String text) {
+            if (text.isEmpty()) {
+                return text;
+            }
+            char first = text.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                    || first == '\t' || first == '\r';
+            return formula ? "'" + text : text;
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdJson extends ExportRows {
+        private final JsonGenerator generator;
+
+        private NdJson(JsonGenerator generator, String[] columns) {
+            super(columns);
+            this.generator = generator;
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are separated by the newline written after each one, not Jackson's space
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = plain(values[i]);
+                if (value == null) {
+                    generator.writeNullField(columns[i]);
+                } else if (value instanceof Number number) {
+                    generator.writeNumberField(columns[i], number.longValue());
+                } else {
+                    generator.writeStringField(columns[i], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.paz.admin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an import body one record at a time, so only the current record is held in memory.
+ *
+ * CSV bodies start with a header row naming the columns and follow RFC 4180 quoting; NDJSON
+ * bodies hold one JSON object per line. Either way a record comes back keyed by column name,
+ * with blank values as null. Malformed input is rejected with IllegalArgumentException.
+ */
+abstract class ImportRows {
+    private int row;
+
+    static ImportRows open(InputStream body, Charset charset, ExchangeFormat format,
+                           ObjectMapper objectMapper) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(body, charset));
+        return format == ExchangeFormat.CSV ? new Csv(reader) : new NdJson(reader, objectMapper);
+    }
+
+    /**
+     * The next record, or null at the end of the body.
+     */
+    final Map<String, String> next() throws IOException {
+        Map<String, String> record = read();
+        if (record != null) {
+            row++;
+        }
+        return record;
+    }
+
+    /**
+     * 1-based number of the record last returned, not counting a CSV header.
+     */
+    final int row() {
+        return row;
+    }
+
+    abstract Map<String, String> read() throws IOException;
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static final class Csv extends ImportRows {
+        private final Reader reader;
+        private String[] columns;
+
+        private Csv(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Map<String, String> read() throws IOException {
+            if (columns == null) {
+                List<String> header = readFields();
+                if (header == null) {
+                    return null;
+                }
+                // Spreadsheet exports often start with a byte order mark
+                header.set(0, header.get(0).replace("\uFEFF", ""));
+                columns = header.stream().map(String::trim).toArray(String[]::new);
+            }
+            List<String> fields;
+            do {
+                fields = readFields();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() > columns.length) {
+                throw new IllegalArgumentException("Record " + (row() + 1) + " has " + fields.size()
+                        + " fields but the header has " + columns.length);
+            }
+            Map<String, String> record = new HashMap<>(columns.length * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                record.put(columns[i], blankToNull(fields.get(i)));
+            }
+            return record;
+        }
+
+        private List<String> readFields() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Record " + (row() + 1) + " has an unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    private static final class NdJson extends ImportRows {
+        private final MappingIterator<JsonNode> records;
+
+        private NdJson(Reader reader, ObjectMapper objectMapper) throws IOException {
+            this.records = objectMapper.readerFor(JsonNode.class).readValues(reader);
+        }
+
+        @Override
+        Map<String, String> read() {
+            JsonNode node;
+            try {
+                if (!records.hasNext()) {
+                    return null;
+                }
+                node = records.next();
+            } catch (RuntimeException e) {
+                // Jackson reports syntax errors from hasNext() as unchecked exceptions
+                throw new IllegalArgumentException("Record " + (row() + 1) + " is not valid JSON");
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Record " + (row() + 1) + " is not a JSON object");
+            }
+            Map<String, String> record = new HashMap<>(node.size() * 2);
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                JsonNode value = field.getValue();
+                record.put(field.getKey(), value.isNull() ? null
+                        : blankToNull(value.isValueNode() ? value.asText() : value.toString()));
+            }
+            return record;
+        }
+    }
+}
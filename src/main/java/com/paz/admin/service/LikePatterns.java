@@ -0,0 +1,18 @@
+package com.paz.admin.service;
+
+/**
+ * Builds LIKE patterns from user input. Queries using them must declare {@code escape '\'}.
+ */
+final class LikePatterns {
+    static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    /**
+     * Escapes the LIKE wildcards in {@code text} so that {@code john_doe} only matches itself.
+     */
+    static String literal(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
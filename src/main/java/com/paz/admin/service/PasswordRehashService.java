@@ -0,0 +1,61 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.UserPrincipal;
+import com.paz.admin.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Re-hashes a user's password after a successful login when the stored hash does not match
+ * the configured encoding (different BCrypt cost or a legacy unprefixed hash). The hashing runs
+ * on the bounded password-hash executor, never on the request thread.
+ */
+@Service
+public class PasswordRehashService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private TaskExecutor passwordHashExecutor;
+
+    public void rehashIfNeeded(UserPrincipal principal, String rawPassword) {
+        String storedHash = principal.getPassword();
+        if (storedHash == null || rawPassword == null || !passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+
+        try {
+            passwordHashExecutor.execute(() -> rehash(principal, storedHash, rawPassword));
+        } catch (TaskRejectedException e) {
+            // Best effort: the next successful login will try again
+            logger.warn("Password rehash queue is full, skipping rehash for user: {}", principal.getUsername());
+        }
+    }
+
+    private void rehash(UserPrincipal principal, String storedHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(principal.getId(), storedHash, newHash) == 1) {
+                userPrincipalCache.evict(principal.getUsername());
+                logger.info("Rehashed password for user: {}", principal.getUsername());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to rehash password for user: {}", principal.getUsername(), e);
+        }
+    }
+}
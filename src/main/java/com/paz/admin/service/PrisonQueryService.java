@@ -0,0 +1,140 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.CacheConfig;
+import com.paz.admin.entity.Prison;
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.PrisonView;
+import com.paz.admin.repository.PrisonRepository;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Paged, filtered prison listings. Filters are composed into a single JPA Specification so
+ * the database does the filtering and counting instead of the controller loading every row.
+ */
+@Service
+public class PrisonQueryService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "location", "capacity", "currentPopulation", "createdAt");
+
+    @Autowired
+    private PrisonRepository prisonRepository;
+
+    /**
+     * Cached by id as an immutable view, so callers cannot change the shared entry;
+     * PrisonController evicts it when it updates or deletes the prison.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRISONS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<PrisonView> findById(Long id) {
+        return prisonRepository.findById(id).map(PrisonView::from);
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResponse<Prison> findPage(PrisonFilter filter, int page, int size, Sort sort) {
+        Page<Prison> prisons = prisonRepository.findAll(filter.toSpecification(), PageRequest.of(page, size, sort));
+        return PagedResponse.ofPage(prisons.getContent(), page, size,
+                prisons.getTotalElements(), prisons.getTotalPages());
+    }
+
+    /**
+     * Keyset page ordered by id: seeks past {@code afterId} instead of skipping rows, and runs
+     * no count query, so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<Prison> findAfter(PrisonFilter filter, long afterId, int size) {
+        Specification<Prison> spec = filter.toSpecification()
+                .and((root, query, cb) -> cb.greaterThan(root.get("id"), afterId));
+        List<Prison> prisons = prisonRepository.findBy(spec, q -> q.sortBy(Sort.by("id")).limit(size).all());
+        Long nextAfterId = prisons.size() == size ? prisons.get(prisons.size() - 1).getId() : null;
+        return PagedResponse.ofKeyset(prisons, size, nextAfterId);
+    }
+
+    /**
+     * Parses "property[,asc|desc]" against the sortable columns; unknown properties are
+     * rejected with IllegalArgumentException.
+     */
+    public static Sort parseSort(String sort) {
+        return QuerySorts.parse(sort, SORTABLE);
+    }
+
+    public static class PrisonFilter {
+        private final String namePrefix;
+        private final String location;
+        private final Integer minCapacity;
+        private final Integer maxCapacity;
+        private final Double minOccupancy;
+        private final Double maxOccupancy;
+
+        /**
+         * Occupancy bounds are ratios of current population to capacity (0.9 = 90% full).
+         * Invalid ranges are rejected with IllegalArgumentException.
+         */
+        public PrisonFilter(String namePrefix, String location, Integer minCapacity, Integer maxCapacity,
+                            Double minOccupancy, Double maxOccupancy) {
+            if (minCapacity != null && maxCapacity != null && minCapacity > maxCapacity) {
+                throw new IllegalArgumentException("minCapacity must not exceed maxCapacity");
+            }
+            if ((minOccupancy != null && minOccupancy < 0) || (maxOccupancy != null && maxOccupancy < 0)) {
+                throw new IllegalArgumentException("Occupancy ratios cannot be negative");
+            }
+            if (minOccupancy != null && maxOccupancy != null && minOccupancy > maxOccupancy) {
+                throw new IllegalArgumentException("minOccupancy must not exceed maxOccupancy");
+            }
+            this.namePrefix = StringUtils.hasText(namePrefix) ? namePrefix.trim().toLowerCase(Locale.ROOT) : null;
+            this.location = StringUtils.hasText(location) ? location.trim().toLowerCase(Locale.ROOT) : null;
+            this.minCapacity = minCapacity;
+            this.maxCapacity = maxCapacity;
+            this.minOccupancy = minOccupancy;
+            this.maxOccupancy = maxOccupancy;
+        }
+
+        Specification<Prison> toSpecification() {
+            return (root, query, cb) -> {
+                List<Predicate> predicates = new ArrayList<>();
+                if (namePrefix != null) {
+                    predicates.add(cb.like(cb.lower(root.get("name")), LikePatterns.literal(namePrefix) + "%",
+                            LikePatterns.ESCAPE));
+                }
+                if (location != null) {
+                    predicates.add(cb.equal(cb.lower(root.get("location")), location));
+                }
+                Expression<Integer> capacity = root.get("capacity");
+                if (minCapacity != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(capacity, minCapacity));
+                }
+                if (maxCapacity != null) {
+                    predicates.add(cb.lessThanOrEqualTo(capacity, maxCapacity));
+                }
+                if (minOccupancy != null || maxOccupancy != null) {
+                    // Compare population against ratio * capacity to avoid dividing by capacity
+                    Expression<Integer> population = cb.coalesce(root.get("currentPopulation"), 0);
+                    predicates.add(cb.greaterThan(capacity, 0));
+                    if (minOccupancy != null) {
+                        predicates.add(cb.ge(population, cb.prod(capacity, minOccupancy)));
+                    }
+                    if (maxOccupancy != null) {
+                        predicates.add(cb.le(population, cb.prod(capacity, maxOccupancy)));
+                    }
+                }
+                return cb.and(predicates.toArray(new Predicate[0]));
+            };
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Prison;
+import com.paz.admin.payload.response.PrisonStatsResponse;
+import com.paz.admin.repository.LocationFigures;
+import com.paz.admin.repository.OccupancyPercentiles;
+import com.paz.admin.repository.PrisonFigures;
+import com.paz.admin.repository.PrisonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory occupancy rollup behind /api/prisons/stats; reads return a precomputed snapshot.
+ *
+ * A rebuild is three aggregate queries: per-location totals (GROUP BY location), occupancy
+ * percentiles (percentile_disc) and the most occupied prisons (ORDER BY ... LIMIT). The prison
+ * write endpoints then apply each change as a delta to the location totals through
+ * {@link #onSaved} and {@link #onDeleted}, which costs O(locations) however many prisons
+ * there are. Percentiles and the ranking cannot be maintained from deltas, so a write marks
+ * them stale and the next read re-queries just those two. Locations are grouped ignoring case
+ * and surrounding whitespace, so "Harare" and "harare " are one location.
+ *
+ * Deltas arrive after the write has committed, so a rebuild in between may already have
+ * counted the change. Writers therefore take {@link #generation()} before writing and pass it
+ * along; if a rebuild finished since then the delta is not applied and the rollup is dropped,
+ * to be rebuilt by the next read.
+ *
+ * Writes on other nodes (or straight to the database) are picked up by the periodic rebuild.
+ */
+@Service
+public class PrisonStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(PrisonStatsService.class);
+
+    static final int RANKING_SIZE = 5;
+
+    @Autowired
+    private PrisonRepository prisonRepository;
+
+    // Guarded by this; keyed by normalized location
+    private Map<String, LocationTotals> locations;
+    private Map<String, Double> percentiles;
+    private List<PrisonStatsResponse.PrisonOccupancy> ranking;
+
+    private volatile boolean distributionStale;
+
+    // Advanced by every finished rebuild; only written while holding this
+    private volatile long generation;
+
+    private volatile PrisonStatsResponse snapshot;
+
+    public PrisonStatsResponse getStats() {
+        PrisonStatsResponse current = snapshot;
+        if (current == null) {
+            return rebuild();
+        }
+        return distributionStale ? refreshDistribution() : current;
+    }
+
+    /**
+     * The rebuild generation to pass to {@link #onSaved} or {@link #onDeleted}; take it before
+     * the write starts.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Applies a create ({@code before} is null) or an update of one prison.
+     */
+    public synchronized void onSaved(long writeGeneration, Figures before, Prison after) {
+        if (!canApply(writeGeneration)) {
+            return;
+        }
+        remove(before);
+        add(Figures.of(after));
+        publish(true);
+    }
+
+    public synchronized void onDeleted(long writeGeneration, Figures deleted) {
+        if (!canApply(writeGeneration)) {
+            return;
+        }
+        remove(deleted);
+        publish(true);
+    }
+
+    @Scheduled(fixedDelayString = "${paz.app.prisonStats.rebuildMs:300000}", initialDelayString = "${paz.app.prisonStats.rebuildMs:300000}")
+    public synchronized PrisonStatsResponse rebuild() {
+        Map<String, LocationTotals> loaded = new TreeMap<>();
+        for (LocationFigures row : prisonRepository.findLocationFigures()) {
+            loaded.put(row.getLocationKey(), LocationTotals.of(row));
+        }
+        locations = loaded;
+        loadDistribution();
+        publish(false);
+        generation++;
+        logger.debug("Rebuilt prison stats for {} locations", locations.size());
+        return snapshot;
+    }
+
+    private synchronized PrisonStatsResponse refreshDistribution() {
+        if (distributionStale) {
+            loadDistribution();
+            publish(false);
+        }
+        return snapshot;
+    }
+
+    private void loadDistribution() {
+        OccupancyPercentiles loaded = prisonRepository.findOccupancyPercentiles();
+        percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", loaded != null ? round(loaded.getP50()) : null);
+        percentiles.put("p90", loaded != null ? round(loaded.getP90()) : null);
+        percentiles.put("p99", loaded != null ? round(loaded.getP99()) : null);
+
+        ranking = new ArrayList<>(RANKING_SIZE);
+        for (PrisonFigures row : prisonRepository.findMostOccupied(PageRequest.of(0, RANKING_SIZE))) {
+            Figures prison = new Figures(row.getName(), row.getLocation(), row.getCapacity(), row.getCurrentPopulation());
+            ranking.add(new PrisonStatsResponse.PrisonOccupancy(row.getId(), prison.name, prison.location,
+                    prison.capacity, prison.population, round(prison.occupancy())));
+        }
+    }
+
+    private boolean canApply(long writeGeneration) {
+        if (locations == null) {
+            return false; // not loaded yet; the first rebuild will see it
+        }
+        if (writeGeneration != generation) {
+            // A rebuild ran during the write and may have counted it already
+            locations = null;
+            snapshot = null;
+            return false;
+        }
+        return true;
+    }
+
+    private void add(Figures prison) {
+        locations.computeIfAbsent(locationKey(prison.location), key -> new LocationTotals(prison.location.trim()))
+                .add(prison, 1);
+    }
+
+    private void remove(Figures prison) {
+        if (prison == null) {
+            return;
+        }
+        String key = locationKey(prison.location);
+        LocationTotals totals = locations.get(key);
+        if (totals == null) {
+            return; // written elsewhere after the last rebuild; the next rebuild settles it
+        }
+        totals.add(prison, -1);
+        if (totals.prisonCount <= 0) {
+            locations.remove(key);
+        }
+    }
+
+    // O(locations): the per-prison figures are never walked here
+    private void publish(boolean changedPrisons) {
+        distributionStale = changedPrisons;
+        LocationTotals all = new LocationTotals(null);
+        List<PrisonStatsResponse.LocationStats> byLocation = new ArrayList<>(locations.size());
+        for (LocationTotals totals : locations.values()) {
+            all.merge(totals);
+            byLocation.add(new PrisonStatsResponse.LocationStats(totals.location, totals.prisonCount,
+                    totals.capacity, totals.population, totals.occupancy()));
+        }
+        snapshot = new PrisonStatsResponse(all.prisonCount, all.capacity, all.population, all.occupancy(),
+                all.overcrowded, percentiles, ranking, byLocation, LocalDateTime.now());
+    }
+
+    static String locationKey(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Double round(Double value) {
+        return value == null ? null : Math.round(value * 10000) / 10000.0;
+    }
+
+    /**
+     * The figures of one prison the rollup depends on. Take them before changing an entity so
+     * the old values can be subtracted.
+     */
+    public static final class Figures {
+        private final String name;
+        private final String location;
+        private final int capacity;
+        private final int population;
+
+        private Figures(String name, String location, Integer capacity, Integer population) {
+            this.name = name;
+            this.location = location != null ? location : "";
+            this.capacity = capacity != null ? capacity : 0;
+            this.population = population != null ? population : 0;
+        }
+
+        public static Figures of(Prison prison) {
+            return new Figures(prison.getName(), prison.getLocation(), prison.getCapacity(),
+                    prison.getCurrentPopulation());
+        }
+
+        private boolean isRated() {
+            return capacity > 0;
+        }
+
+        private double occupancy() {
+            return (double) population / capacity;
+        }
+    }
+
+    private static final class LocationTotals {
+        private final String location;
+        private int prisonCount;
+        private long capacity;
+        private long population;
+        // Population of prisons with a capacity, so unrated prisons do not skew occupancy
+        private long ratedPopulation;
+        private int overcrowded;
+
+        private LocationTotals(String location) {
+            this.location = location;
+        }
+
+        private static LocationTotals of(LocationFigures row) {
+            LocationTotals totals = new LocationTotals(row.getLocation());
+            totals.prisonCount = row.getPrisonCount().intValue();
+            totals.capacity = row.getCapacity();
+            totals.population = row.getPopulation();
+            totals.ratedPopulation = row.getRatedPopulation();
+            totals.overcrowded = row.getOvercrowdedCount().intValue();
+            return totals;
+        }
+
+        private void add(Figures prison, int sign) {
+            prisonCount += sign;
+            capacity += sign * (long) prison.capacity;
+            population += sign * (long) prison.population;
+            if (prison.isRated()) {
+                ratedPopulation += sign * (long) prison.population;
+                if (prison.occupancy() > 1.0) {
+                    overcrowded += sign;
+                }
+            }
+        }
+
+        private void merge(LocationTotals other) {
+            prisonCount += other.prisonCount;
+            capacity += other.capacity;
+            population += other.population;
+            ratedPopulation += other.ratedPopulation;
+            overcrowded += other.overcrowded;
+        }
+
+        private Double occupancy() {
+            return capacity > 0 ? round((double) ratedPopulation / capacity) : null;
+        }
+    }
+}
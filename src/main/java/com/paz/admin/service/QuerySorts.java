@@ -0,0 +1,32 @@
+package com.paz.admin.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Sort parsing shared by the listing services.
+ */
+final class QuerySorts {
+
+    private QuerySorts() {
+    }
+
+    /**
+     * Parses "property[,asc|desc]" against the given sortable properties; unknown properties
+     * are rejected with IllegalArgumentException. Ties are broken on id so pages are stable.
+     */
+    static Sort parse(String sort, Set<String> sortable) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!sortable.contains(property)) {
+            throw new IllegalArgumentException("Cannot sort by " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+        return "id".equals(property)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, property).and(Sort.by("id"));
+    }
+}
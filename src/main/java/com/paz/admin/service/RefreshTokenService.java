@@ -0,0 +1,134 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.JwtClaims;
+import com.paz.admin.config.JwtUtils;
+import com.paz.admin.config.UserPrincipal;
+import com.paz.admin.entity.RefreshToken;
+import com.paz.admin.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens so clients can get new access tokens without another
+ * BCrypt-checked signin.
+ *
+ * A refresh is a signature check plus a primary-key update on refresh_tokens; the principal
+ * comes from {@link UserPrincipalCache}. Every refresh token is single use: presenting one that
+ * was already used revokes its whole family, which cuts off a stolen token and its holder alike.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Value("${paz.app.refreshTokens.purgeGraceMs:86400000}")
+    private long purgeGraceMs;
+
+    @Transactional
+    public String issue(UserPrincipal principal) {
+        return issueInFamily(principal, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token in the same family.
+     *
+     * @throws TokenRefreshException if the token is invalid, expired, reused or its user is disabled
+     */
+    @Transactional(noRollbackFor = TokenRefreshException.class)
+    public RefreshedTokens rotate(String refreshToken) {
+        JwtClaims claims = jwtUtils.parseVerifiedClaims(refreshToken)
+                .filter(JwtClaims::isRefreshToken)
+                .orElseThrow(() -> new TokenRefreshException("Refresh token is invalid or expired"));
+
+        // Single statement: succeeds only for a known, unused, unrevoked token
+        if (refreshTokenRepository.markUsed(claims.getTokenId()) == 0) {
+            // Either replayed or revoked: shut the whole family down
+            refreshTokenRepository.revokeFamily(claims.getFamilyId());
+            logger.warn("Refresh token reuse detected for user: {}", claims.getSubject());
+            throw new TokenRefreshException("Refresh token has already been used or revoked");
+        }
+
+        UserPrincipal principal = userPrincipalCache.get(claims.getSubject(), claims.getUserId());
+        if (!principal.isEnabled()) {
+            refreshTokenRepository.revokeFamily(claims.getFamilyId());
+            throw new TokenRefreshException("User account is disabled");
+        }
+
+        return new RefreshedTokens(
+                principal,
+                jwtUtils.generateJwtToken(principal),
+                issueInFamily(principal, claims.getFamilyId())
+        );
+    }
+
+    /**
+     * Revokes the family of the given refresh token, provided it belongs to {@code username}.
+     */
+    @Transactional
+    public void revoke(String refreshToken, String username) {
+        jwtUtils.parseVerifiedClaims(refreshToken)
+                .filter(JwtClaims::isRefreshToken)
+                .filter(claims -> claims.getSubject().equals(username))
+                .ifPresent(claims -> refreshTokenRepository.revokeFamily(claims.getFamilyId()));
+    }
+
+    /**
+     * Every rotation inserts a row, so rows are deleted once their token has been expired for
+     * longer than the grace period. Used and revoked rows are kept until then: after expiry the
+     * token fails its signature check anyway, so the row is no longer needed for reuse detection.
+     */
+    @Scheduled(fixedDelayString = "${paz.app.refreshTokens.purgeMs:3600000}", initialDelayString = "${paz.app.refreshTokens.purgeMs:3600000}")
+    @Transactional
+    public int purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now().minusNanos(purgeGraceMs * 1_000_000));
+        logger.debug("Refresh token purge removed {} expired rows", deleted);
+        return deleted;
+    }
+
+    private String issueInFamily(UserPrincipal principal, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(jwtUtils.getJwtRefreshExpirationMs() * 1_000_000);
+        refreshTokenRepository.save(new RefreshToken(tokenId, familyId, principal.getId(), expiresAt));
+        return jwtUtils.generateRefreshToken(principal, tokenId, familyId);
+    }
+
+    public static class RefreshedTokens {
+        private final UserPrincipal principal;
+        private final String accessToken;
+        private final String refreshToken;
+
+        public RefreshedTokens(UserPrincipal principal, String accessToken, String refreshToken) {
+            this.principal = principal;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public UserPrincipal getPrincipal() {
+            return principal;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Role;
+import com.paz.admin.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshot of the roles table, used instead of RoleRepository.findByName
+ * wherever a role has to be resolved.
+ *
+ * The snapshot is loaded once the application is ready and replaced wholesale. Any insert,
+ * update or delete of a Role through JPA marks it stale once the transaction commits; the
+ * catalog registers its own Hibernate listener for that, so the entity knows nothing about
+ * it. A name that is not in the snapshot is simply not found: roles only appear through
+ * migrations (which run before startup) or JPA, so misses never trigger a reload. The
+ * returned Role instances are detached but carry their ids, so they can be assigned to users.
+ */
+@Service
+public class RoleCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(RoleCatalog.class);
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+    public static final String ROLE_PRISON_MANAGER = "ROLE_PRISON_MANAGER";
+    public static final String ROLE_TEACHER = "ROLE_TEACHER";
+
+    // Bumped after a role change commits; a snapshot older than this is reloaded
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void registerChangeListener() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        ChangeListener listener = new ChangeListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(current().byName.get(name));
+    }
+
+    public Role require(String name) {
+        return findByName(name).orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+    }
+
+    /**
+     * Maps the role strings accepted by the API ("admin", "manager", anything else means
+     * teacher) to roles. A null set means the default teacher role.
+     */
+    public Set<Role> resolve(Collection<String> apiRoles) {
+        Set<Role> roles = new HashSet<>();
+        if (apiRoles == null) {
+            roles.add(require(ROLE_TEACHER));
+            return roles;
+        }
+        for (String apiRole : apiRoles) {
+            roles.add(require(roleNameFor(apiRole)));
+        }
+        return roles;
+    }
+
+    public static String roleNameFor(String apiRole) {
+        return switch (apiRole) {
+            case "admin" -> ROLE_ADMIN;
+            case "manager" -> ROLE_PRISON_MANAGER;
+            default -> ROLE_TEACHER;
+        };
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation != generation.get()) {
+            return reload();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot reload() {
+        long loadedGeneration = generation.get();
+        Map<String, Role> byName = roleRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+        Snapshot loaded = new Snapshot(byName, loadedGeneration);
+        snapshot = loaded;
+        logger.debug("Loaded {} roles", byName.size());
+        return loaded;
+    }
+
+    void markStale() {
+        generation.incrementAndGet();
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Role> byName;
+        private final long generation;
+
+        private Snapshot(Map<String, Role> byName, long generation) {
+            this.byName = byName;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Hibernate listener that invalidates the catalog after a Role change commits.
+     */
+    private final class ChangeListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Role.class;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            markStale();
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            markStale();
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            markStale();
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+    }
+}
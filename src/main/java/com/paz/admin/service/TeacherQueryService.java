@@ -0,0 +1,141 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.CacheConfig;
+import com.paz.admin.entity.Teacher;
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.TeacherView;
+import com.paz.admin.repository.TeacherRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Teacher search. Every filter combination is one query against the teachers table, with
+ * only the predicates that were supplied, so each can use its index.
+ */
+@Service
+public class TeacherQueryService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Set<String> SORTABLE = Set.of("id", "firstName", "lastName", "email", "specialization", "yearsOfExperience", "createdAt");
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    /**
+     * Cached by id; TeacherController evicts the entry on writes, and PrisonController clears
+     * the region when a prison changes since every view embeds its prison summary.
+     */
+    @Cacheable(cacheNames = CacheConfig.TEACHERS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<TeacherView> findById(Long id) {
+        return teacherRepository.findById(id).map(TeacherView::from);
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResponse<TeacherView> findPage(TeacherFilter filter, int page, int size, Sort sort) {
+        // One select with the prison joined, plus the count
+        Page<Teacher> teachers = teacherRepository.findAll(filter.toSpecification(), PageRequest.of(page, size, sort));
+        return PagedResponse.ofPage(toViews(teachers.getContent()), page, size,
+                teachers.getTotalElements(), teachers.getTotalPages());
+    }
+
+    /**
+     * Keyset page ordered by id, without a count query.
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<TeacherView> findAfter(TeacherFilter filter, long afterId, int size) {
+        Specification<Teacher> spec = filter.toSpecification()
+                .and((root, query, cb) -> cb.greaterThan(root.get("id"), afterId));
+        // project() applies a fetch graph, so the prison is joined rather than loaded per row
+        List<Teacher> teachers = teacherRepository.findBy(spec,
+                q -> q.project("prison").sortBy(Sort.by("id")).limit(size).all());
+        Long nextAfterId = teachers.size() == size ? teachers.get(teachers.size() - 1).getId() : null;
+        return PagedResponse.ofKeyset(toViews(teachers), size, nextAfterId);
+    }
+
+    private List<TeacherView> toViews(List<Teacher> teachers) {
+        return teachers.stream().map(TeacherView::from).collect(Collectors.toList());
+    }
+
+    public static Sort parseSort(String sort) {
+        return QuerySorts.parse(sort, SORTABLE);
+    }
+
+    public static class TeacherFilter {
+        private final Long prisonId;
+        private final String specialization;
+        private final Integer minExperience;
+        private final Integer maxExperience;
+        private final String query;
+
+        /**
+         * {@code query} is a case-insensitive prefix of the first name, last name or email.
+         * Invalid experience ranges are rejected with IllegalArgumentException.
+         */
+        public TeacherFilter(Long prisonId, String specialization, Integer minExperience, Integer maxExperience,
+                             String query) {
+            if ((minExperience != null && minExperience < 0) || (maxExperience != null && maxExperience < 0)) {
+                throw new IllegalArgumentException("Years of experience cannot be negative");
+            }
+            if (minExperience != null && maxExperience != null && minExperience > maxExperience) {
+                throw new IllegalArgumentException("minExperience must not exceed maxExperience");
+            }
+            this.prisonId = prisonId;
+            this.specialization = StringUtils.hasText(specialization)
+                    ? specialization.trim().toLowerCase(Locale.ROOT) : null;
+            this.minExperience = minExperience;
+            this.maxExperience = maxExperience;
+            this.query = StringUtils.hasText(query) ? query.trim().toLowerCase(Locale.ROOT) : null;
+        }
+
+        public static TeacherFilter byPrison(Long prisonId) {
+            return new TeacherFilter(prisonId, null, null, null, null);
+        }
+
+        public static TeacherFilter bySpecialization(String specialization) {
+            return new TeacherFilter(null, specialization, null, null, null);
+        }
+
+        Specification<Teacher> toSpecification() {
+            return (root, query, cb) -> {
+                List<Predicate> predicates = new ArrayList<>();
+                if (prisonId != null) {
+                    // Compares the foreign key column without joining prisons
+                    predicates.add(cb.equal(root.get("prison").get("id"), prisonId));
+                }
+                if (specialization != null) {
+                    predicates.add(cb.equal(cb.lower(root.get("specialization")), specialization));
+                }
+                if (minExperience != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("yearsOfExperience"), minExperience));
+                }
+                if (maxExperience != null) {
+                    predicates.add(cb.lessThanOrEqualTo(root.get("yearsOfExperience"), maxExperience));
+                }
+                if (this.query != null) {
+                    String prefix = LikePatterns.literal(this.query) + "%";
+                    predicates.add(cb.or(
+                            cb.like(cb.lower(root.get("firstName")), prefix, LikePatterns.ESCAPE),
+                            cb.like(cb.lower(root.get("lastName")), prefix, LikePatterns.ESCAPE),
+                            cb.like(cb.lower(root.get("email")), prefix, LikePatterns.ESCAPE)));
+                }
+                return cb.and(predicates.toArray(new Predicate[0]));
+            };
+        }
+    }
+}
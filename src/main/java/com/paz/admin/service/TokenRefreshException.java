@@ -0,0 +1,7 @@
+package com.paz.admin.service;
+
+public class TokenRefreshException extends RuntimeException {
+    public TokenRefreshException(String message) {
+        super(message);
+    }
+}
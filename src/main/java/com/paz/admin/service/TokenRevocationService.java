@@ -0,0 +1,176 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.RevokedToken;
+import com.paz.admin.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation list for access tokens, checked by the JWT filter on every request without a
+ * database round trip.
+ *
+ * The revoked_tokens table is the source of truth. Each node mirrors the unexpired rows into an
+ * exact in-memory set fronted by a Bloom filter, so the common case (token not revoked) is
+ * answered by the filter alone. Nodes pick up revocations made elsewhere by polling for rows
+ * newer than the last poll, and a sweeper drops expired entries and rebuilds the filter.
+ *
+ * The same table also holds one cutoff row per user, keyed {@code user:<id>}, before which all
+ * of that user's access tokens are revoked. Role and status changes set it so tokens whose
+ * claims the filter trusts stop working on every node. A cutoff is kept for one access-token
+ * lifetime, after which every token it covers has expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read a little history on each poll so rows committed late by other nodes are not missed
+    private static final long POLL_OVERLAP_SECONDS = 30;
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    // Token ids are UUIDs, so cutoff rows can share the jti column without colliding
+    private static final String USER_CUTOFF_PREFIX = "user:";
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${paz.app.revocation.expectedEntries:100000}")
+    private long expectedEntries;
+
+    @Value("${paz.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    // User id -> tokens issued before this time are revoked
+    private final Map<Long, LocalDateTime> userCutoffs = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter = new BloomFilter(1, FALSE_POSITIVE_RATE);
+
+    private volatile LocalDateTime lastPoll;
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        return bloomFilter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || isRevoked(jti)) {
+            return;
+        }
+
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault());
+        if (!revokedTokenRepository.existsById(jti)) {
+            revokedTokenRepository.save(new RevokedToken(jti, expiry));
+        }
+        remember(jti, expiry);
+    }
+
+    /**
+     * Whether a token issued at {@code issuedAt} predates the user's cutoff. Token issue times
+     * have whole-second precision, so a token issued in the same second as the cutoff is
+     * still accepted.
+     */
+    public boolean isRevokedForUser(Long userId, Instant issuedAt) {
+        LocalDateTime cutoff = userId != null ? userCutoffs.get(userId) : null;
+        if (cutoff == null || issuedAt == null) {
+            return false;
+        }
+        return LocalDateTime.ofInstant(issuedAt, ZoneId.systemDefault()).isBefore(cutoff.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Revokes every access token issued to the user so far.
+     */
+    public void revokeAllForUser(Long userId) {
+        String key = USER_CUTOFF_PREFIX + userId;
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken cutoff = revokedTokenRepository.findById(key).orElseGet(() -> new RevokedToken(key, null));
+        cutoff.setExpiresAt(now.plus(jwtExpirationMs, ChronoUnit.MILLIS));
+        cutoff.setRevokedAt(now);
+        remember(revokedTokenRepository.save(cutoff));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        LocalDateTime now = LocalDateTime.now();
+        rebuild(now);
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            remember(token);
+        }
+        lastPoll = now;
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${paz.app.revocation.pollMs:5000}", initialDelayString = "${paz.app.revocation.pollMs:5000}")
+    public void pollForNewRevocations() {
+        if (lastPoll == null) {
+            loadAll();
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfter(lastPoll.minusSeconds(POLL_OVERLAP_SECONDS))) {
+            remember(token);
+        }
+        lastPoll = now;
+    }
+
+    @Scheduled(fixedDelayString = "${paz.app.revocation.sweepMs:600000}", initialDelayString = "${paz.app.revocation.sweepMs:600000}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        revoked.values().removeIf(expiry -> expiry.isBefore(now));
+        LocalDateTime oldestLiveToken = now.minus(jwtExpirationMs, ChronoUnit.MILLIS);
+        userCutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldestLiveToken));
+        rebuild(now);
+        logger.debug("Revocation sweep removed {} expired rows, {} remain", deleted, revoked.size());
+    }
+
+    private void remember(RevokedToken token) {
+        if (!token.getJti().startsWith(USER_CUTOFF_PREFIX)) {
+            remember(token.getJti(), token.getExpiresAt());
+            return;
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return;
+        }
+        Long userId = Long.valueOf(token.getJti().substring(USER_CUTOFF_PREFIX.length()));
+        userCutoffs.merge(userId, token.getRevokedAt(), (current, incoming) -> incoming.isAfter(current) ? incoming : current);
+    }
+
+    // Writers are rare and serialised so a rebuild can never drop a concurrent insert; readers never lock
+    private synchronized void remember(String jti, LocalDateTime expiresAt) {
+        if (expiresAt.isBefore(LocalDateTime.now())) {
+            return;
+        }
+        revoked.put(jti, expiresAt);
+        bloomFilter.put(jti);
+    }
+
+    // Bloom filters cannot forget entries, so shrinking the set means building a new one
+    private synchronized void rebuild(LocalDateTime now) {
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), FALSE_POSITIVE_RATE);
+        revoked.forEach((jti, expiry) -> {
+            if (!expiry.isBefore(now)) {
+                fresh.put(jti);
+            }
+        });
+        bloomFilter = fresh;
+    }
+}
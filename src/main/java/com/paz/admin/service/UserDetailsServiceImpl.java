@@ -1,5 +1,6 @@
 package com.paz.admin.service;
 
+import com.paz.admin.config.AuthMetrics;
 import com.paz.admin.config.UserPrincipal;
 import com.paz.admin.entity.User;
 import com.paz.admin.repository.UserRepository;
@@ -16,12 +17,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        long start = System.nanoTime();
+        try {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-        return UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        } finally {
+            authMetrics.recordUserLookup(System.nanoTime() - start);
+        }
     }
 }
\ No newline at end of file
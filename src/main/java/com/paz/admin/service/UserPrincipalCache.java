@@ -0,0 +1,75 @@
+package com.paz.admin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paz.admin.config.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Bounded, TTL-evicting cache of {@link UserPrincipal}s used by the JWT filter so that
+ * authenticated requests do not hit the database for every call.
+ *
+ * Entries are keyed by username and checked against the {@code userId} claim of the token;
+ * a mismatch (e.g. the username was deleted and re-registered) forces a reload. Eviction is
+ * local to this node, so the TTL bounds how long another node may serve a stale principal.
+ */
+@Service
+public class UserPrincipalCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    private final Cache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(UserDetailsServiceImpl userDetailsService,
+                              MeterRegistry meterRegistry,
+                              @Value("${paz.app.principalCache.maxSize:10000}") long maxSize,
+                              @Value("${paz.app.principalCache.ttlSeconds:300}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+    }
+
+    /**
+     * Returns the principal for the given username, loading it on a miss. When {@code userId}
+     * is known (from the token claims) it must match the cached principal's id.
+     */
+    public UserPrincipal get(String username, Long userId) {
+        UserPrincipal principal = cache.get(username, this::load);
+        if (userId != null && !Objects.equals(principal.getId(), userId)) {
+            logger.debug("Cached principal for {} has id {} but token carries {}; reloading",
+                    username, principal.getId(), userId);
+            cache.invalidate(username);
+            principal = cache.get(username, this::load);
+            if (!Objects.equals(principal.getId(), userId)) {
+                throw new UsernameNotFoundException("Token user id does not match user: " + username);
+            }
+        }
+        return principal;
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private UserPrincipal load(String username) {
+        return (UserPrincipal) userDetailsService.loadUserByUsername(username);
+    }
+}
@@ -0,0 +1,118 @@
+package com.paz.admin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paz.admin.entity.Role;
+import com.paz.admin.entity.User;
+import com.paz.admin.payload.response.UserProfileResponse;
+import com.paz.admin.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user cache of the /api/auth/profile response together with its ETag, so repeat
+ * calls with a matching If-None-Match are answered with 304 without touching the database.
+ *
+ * Entries are evicted by the endpoints that change a user; the TTL bounds staleness for
+ * changes made on another node.
+ */
+@Service
+public class UserProfileCache {
+    private final UserRepository userRepository;
+
+    private final Cache<Long, CachedProfile> cache;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${paz.app.profileCache.maxSize:10000}") long maxSize,
+                            @Value("${paz.app.profileCache.ttlSeconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userProfiles");
+    }
+
+    /**
+     * Returns the cached profile, loading it (user and roles in one query) on a miss.
+     * Unknown users are not cached.
+     */
+    public Optional<CachedProfile> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, id -> userRepository.findById(id).map(CachedProfile::of).orElse(null)));
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public static final class CachedProfile {
+        private final UserProfileResponse profile;
+        private final String etag;
+
+        private CachedProfile(UserProfileResponse profile, String etag) {
+            this.profile = profile;
+            this.etag = etag;
+        }
+
+        static CachedProfile of(User user) {
+            List<String> roles = user.getRoles().stream()
+                    .map(Role::getName)
+                    .sorted()
+                    .collect(Collectors.toList());
+            UserProfileResponse profile = new UserProfileResponse(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getEmail(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    roles
+            );
+            String fingerprint = String.join("\u0000", String.valueOf(user.getId()), user.getUsername(),
+                    user.getEmail(), user.getFirstName(), user.getLastName(), String.join(",", roles));
+            String etag = "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+            return new CachedProfile(profile, etag);
+        }
+
+        public UserProfileResponse getProfile() {
+            return profile;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * True when an If-None-Match header value (possibly a list, possibly weak) names this ETag.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
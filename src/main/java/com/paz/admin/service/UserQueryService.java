@@ -0,0 +1,99 @@
+package com.paz.admin.service;
+
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.UserProfileResponse;
+import com.paz.admin.repository.UserRepository;
+import com.paz.admin.repository.UserRoleName;
+import com.paz.admin.repository.UserSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Admin user listings built from a column projection plus one query for the page's roles,
+ * instead of hydrating every User entity with its EAGER role set.
+ */
+@Service
+public class UserQueryService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Set<String> SORTABLE = Set.of("id", "username", "email", "firstName", "lastName", "createdAt");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional(readOnly = true)
+    public PagedResponse<UserProfileResponse> findPage(UserFilter filter, int page, int size, Sort sort) {
+        Page<UserSummary> summaries = userRepository.findSummaries(
+                filter.pattern(), filter.role, filter.enabled, PageRequest.of(page, size, sort));
+        return PagedResponse.ofPage(withRoles(summaries.getContent()), page, size,
+                summaries.getTotalElements(), summaries.getTotalPages());
+    }
+
+    @Transactional(readOnly = true)
+    public PagedResponse<UserProfileResponse> findAfter(UserFilter filter, long afterId, int size) {
+        List<UserSummary> summaries = userRepository.findSummariesAfter(
+                filter.pattern(), filter.role, filter.enabled, afterId, PageRequest.of(0, size));
+        Long nextAfterId = summaries.size() == size ? summaries.get(summaries.size() - 1).getId() : null;
+        return PagedResponse.ofKeyset(withRoles(summaries), size, nextAfterId);
+    }
+
+    /**
+     * Parses "property[,asc|desc]" against the sortable columns; unknown properties are
+     * rejected with IllegalArgumentException.
+     */
+    public static Sort parseSort(String sort) {
+        return QuerySorts.parse(sort, SORTABLE);
+    }
+
+    private List<UserProfileResponse> withRoles(List<UserSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> roles = new HashMap<>();
+        for (UserRoleName row : userRepository.findRoleNames(
+                summaries.stream().map(UserSummary::getId).collect(Collectors.toList()))) {
+            roles.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row.getRoleName());
+        }
+        return summaries.stream()
+                .map(user -> new UserProfileResponse(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getFirstName(),
+                        user.getLastName(),
+                        roles.getOrDefault(user.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    public static class UserFilter {
+        private final String query;
+        private final String role;
+        private final Boolean enabled;
+
+        public UserFilter(String query, String role, Boolean enabled) {
+            this.query = StringUtils.hasText(query) ? query.trim() : null;
+            this.role = StringUtils.hasText(role) ? role.trim() : null;
+            this.enabled = enabled;
+        }
+
+        private String pattern() {
+            if (query == null) {
+                return null;
+            }
+            return "%" + LikePatterns.literal(query.toLowerCase(Locale.ROOT)) + "%";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Rotating refresh tokens: one row per issued token (keyed by its jti), grouped into families
+CREATE TABLE refresh_tokens (
+    id VARCHAR(36) PRIMARY KEY,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Only live tokens are ever looked up by family (to revoke it), so keep the index partial
+CREATE INDEX idx_refresh_tokens_live_family ON refresh_tokens (family_id) WHERE revoked = FALSE;
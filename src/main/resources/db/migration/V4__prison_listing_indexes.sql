@@ -0,0 +1,4 @@
+-- Prison listing filters: case-insensitive name prefix and location match, capacity range
+CREATE INDEX idx_prisons_name_lower ON prisons (lower(name) varchar_pattern_ops);
+CREATE INDEX idx_prisons_location_lower ON prisons (lower(location));
+CREATE INDEX idx_prisons_capacity ON prisons (capacity);
@@ -0,0 +1,10 @@
+-- Teacher search: each index leads with the filtered column and ends with id so keyset
+-- pages ordered by id can be read from the index
+CREATE INDEX idx_teachers_prison_id ON teachers (prison_id, id);
+CREATE INDEX idx_teachers_specialization_lower ON teachers (lower(specialization), id);
+CREATE INDEX idx_teachers_experience ON teachers (years_of_experience, id);
+
+-- Name/email prefix search
+CREATE INDEX idx_teachers_first_name_lower ON teachers (lower(first_name) varchar_pattern_ops);
+CREATE INDEX idx_teachers_last_name_lower ON teachers (lower(last_name) varchar_pattern_ops);
+CREATE INDEX idx_teachers_email_lower ON teachers (lower(email) varchar_pattern_ops);
@@ -0,0 +1,10 @@
+-- Uniqueness and references are enforced by the database, so writes no longer need
+-- exists-then-save lookups. The application maps these names to 409/404 responses.
+-- Fails if existing rows already hold duplicate names or contact emails; resolve those first.
+ALTER TABLE prisons ADD CONSTRAINT uk_prisons_name UNIQUE (name);
+-- Several prisons may have no contact email; UNIQUE allows multiple NULLs
+ALTER TABLE prisons ADD CONSTRAINT uk_prisons_contact_email UNIQUE (contact_email);
+
+-- V1 declared these inline, so they carry generated names
+ALTER TABLE teachers RENAME CONSTRAINT teachers_email_key TO uk_teachers_email;
+ALTER TABLE teachers RENAME CONSTRAINT teachers_prison_id_fkey TO fk_teachers_prison;
@@ -0,0 +1,4 @@
+-- Row versions for optimistic concurrency: every update bumps the version, and writes that
+-- carry the version a client read are rejected once someone else has changed the row.
+ALTER TABLE prisons ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE teachers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
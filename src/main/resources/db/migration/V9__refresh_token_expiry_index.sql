@@ -0,0 +1,2 @@
+-- The purge job deletes refresh tokens by expires_at
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
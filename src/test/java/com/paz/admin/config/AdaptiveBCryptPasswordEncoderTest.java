@@ -0,0 +1,37 @@
+package com.paz.admin.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncoding_WhenHashUsesConfiguredCost_ShouldReturnFalse() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+    }
+
+    @Test
+    void upgradeEncoding_WhenHashUsesLowerCost_ShouldReturnTrue() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password123")));
+    }
+
+    @Test
+    void upgradeEncoding_WhenHashUsesHigherCost_ShouldReturnTrue() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password123")));
+    }
+
+    @Test
+    void upgradeEncoding_WhenHashIsNotBCrypt_ShouldReturnFalse() {
+        assertFalse(encoder.upgradeEncoding("password123"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void matches_WhenHashUsesDifferentCost_ShouldStillMatch() {
+        assertTrue(encoder.matches("password123", new BCryptPasswordEncoder(4).encode("password123")));
+    }
+}
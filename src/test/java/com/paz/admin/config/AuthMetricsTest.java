@@ -0,0 +1,59 @@
+package com.paz.admin.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthMetricsTest {
+
+    @Test
+    void timed_ShouldRecordEachPasswordMatch() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+        PasswordEncoder encoder = authMetrics.timed(new PlainTextEncoder());
+
+        // Act
+        assertTrue(encoder.matches("password", "password"));
+        assertFalse(encoder.matches("password", "other"));
+
+        // Assert
+        assertEquals(2, meterRegistry.get("auth.password.match").timer().count());
+    }
+
+    @Test
+    void recordTokenVerification_ShouldSplitByOutcome() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+
+        // Act
+        authMetrics.recordTokenVerification(5_000, true);
+        authMetrics.recordTokenVerification(7_000, true);
+        authMetrics.recordTokenVerification(3_000, false);
+
+        // Assert
+        Timer valid = meterRegistry.get("auth.jwt.verify").tag("outcome", "valid").timer();
+        Timer invalid = meterRegistry.get("auth.jwt.verify").tag("outcome", "invalid").timer();
+        assertEquals(2, valid.count());
+        assertEquals(12_000, valid.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(1, invalid.count());
+    }
+
+    private static class PlainTextEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.paz.admin.config;
+
+import com.paz.admin.service.TokenRevocationService;
+import com.paz.admin.service.UserPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private AuthMetrics authMetrics;
+
+    private AuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // Other test classes may leave an authentication on this thread
+        SecurityContextHolder.clearContext();
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "userPrincipalCache", userPrincipalCache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(filter, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(filter, "trustClaims", true);
+        ReflectionTestUtils.setField(filter, "trustClaimsMaxAgeSeconds", 900L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void trustClaims_ShouldAuthenticateWithoutLoadingUser() throws Exception {
+        // Arrange
+        stubClaims(Instant.now().minusSeconds(60));
+
+        // Act
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_TEACHER")));
+        verifyNoInteractions(userPrincipalCache);
+    }
+
+    @Test
+    void trustClaims_WithTokenOlderThanMaxAge_ShouldNotAuthenticate() throws Exception {
+        // Arrange
+        stubClaims(Instant.now().minusSeconds(3600));
+
+        // Act
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userPrincipalCache);
+    }
+
+    @Test
+    void trustClaims_WithRevokedToken_ShouldNotAuthenticate() throws Exception {
+        // Arrange
+        stubClaims(Instant.now().minusSeconds(60));
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+
+        // Act
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void trustClaims_WithTokenIssuedBeforeAccountChange_ShouldNotAuthenticate() throws Exception {
+        // Arrange
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        stubClaims(issuedAt);
+        when(tokenRevocationService.isRevokedForUser(7L, issuedAt)).thenReturn(true);
+
+        // Act
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private void stubClaims(Instant issuedAt) {
+        JwtClaims claims = new JwtClaims("jti-1", JwtClaims.ACCESS_TOKEN, null, "testuser", 7L,
+                List.of("ROLE_TEACHER"), issuedAt, issuedAt.plusSeconds(7200));
+        when(verifiedTokenCache.getVerifiedClaims(anyString())).thenReturn(Optional.of(claims));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/prisons");
+        request.addHeader("Authorization", "Bearer token");
+        return request;
+    }
+}
@@ -0,0 +1,156 @@
+package com.paz.admin.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+    private static final String SECRET = "testSecretKey1234567890testSecretKey1234567890";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path keyDir;
+
+    @Test
+    void rotation_ShouldKeepTokensFromRetiredKeyValid() throws Exception {
+        // Arrange - node signs with key "a"
+        KeyPair keyA = generateKeyPair();
+        writePem(keyDir.resolve("a.key"), "PRIVATE KEY", keyA.getPrivate().getEncoded());
+        JwtUtils before = jwtUtils(new JwtKeyRing("RS256", SECRET, keyDir.toString(), "", "", true, 30000, objectMapper));
+        String oldToken = before.generateJwtToken(principal());
+
+        // Act - "a" is retired to a public key and "b" becomes active
+        Files.delete(keyDir.resolve("a.key"));
+        writePem(keyDir.resolve("a.pub"), "PUBLIC KEY", keyA.getPublic().getEncoded());
+        writePem(keyDir.resolve("b.key"), "PRIVATE KEY", generateKeyPair().getPrivate().getEncoded());
+        JwtKeyRing rotated = new JwtKeyRing("RS256", SECRET, keyDir.toString(), "b", "", true, 30000, objectMapper);
+        JwtUtils after = jwtUtils(rotated);
+
+        // Assert
+        assertEquals("b", rotated.getSigningKid());
+        assertTrue(after.validateJwtToken(oldToken));
+        assertTrue(after.validateJwtToken(after.generateJwtToken(principal())));
+        assertFalse(before.validateJwtToken(after.generateJwtToken(principal())));
+    }
+
+    @Test
+    void toJwks_ShouldRoundTripPublicKeys() throws Exception {
+        // Arrange
+        writePem(keyDir.resolve("k1.key"), "PRIVATE KEY", generateKeyPair().getPrivate().getEncoded());
+        KeyPair retired = generateKeyPair();
+        writePem(keyDir.resolve("k2.pub"), "PUBLIC KEY", retired.getPublic().getEncoded());
+        JwtKeyRing keyRing = new JwtKeyRing("RS256", SECRET, keyDir.toString(), "", "", true, 30000, objectMapper);
+
+        // Act
+        Map<String, PublicKey> parsed = JwtKeyRing.parseJwks(objectMapper.valueToTree(keyRing.toJwks()));
+
+        // Assert
+        assertEquals("k1", keyRing.getSigningKid());
+        assertEquals(2, parsed.size());
+        assertArrayEquals(retired.getPublic().getEncoded(), parsed.get("k2").getEncoded());
+    }
+
+    @Test
+    void legacyHs256Tokens_ShouldBeAcceptedOnlyWhenAllowed() throws Exception {
+        // Arrange
+        String legacyToken = jwtUtils(new JwtKeyRing("HS256", SECRET, "", "", "", true, 30000, objectMapper))
+                .generateJwtToken(principal());
+        writePem(keyDir.resolve("a.key"), "PRIVATE KEY", generateKeyPair().getPrivate().getEncoded());
+
+        // Act
+        JwtUtils accepting = jwtUtils(new JwtKeyRing("RS256", SECRET, keyDir.toString(), "", "", true, 30000, objectMapper));
+        JwtUtils rejecting = jwtUtils(new JwtKeyRing("RS256", SECRET, keyDir.toString(), "", "", false, 30000, objectMapper));
+
+        // Assert
+        assertTrue(accepting.validateJwtToken(legacyToken));
+        assertFalse(rejecting.validateJwtToken(legacyToken));
+    }
+
+    @Test
+    void unknownKid_ShouldRefetchJwksAtMostOncePerInterval() throws Exception {
+        // Arrange
+        writePem(keyDir.resolve("a.key"), "PRIVATE KEY", generateKeyPair().getPrivate().getEncoded());
+        JwtKeyRing issuer = new JwtKeyRing("RS256", SECRET, keyDir.toString(), "", "", false, 30000, objectMapper);
+        String token = jwtUtils(issuer).generateJwtToken(principal());
+
+        AtomicReference<String> jwks = new AtomicReference<>("{\"keys\":[]}");
+        AtomicInteger fetches = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwks.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            // A verification-only node needs no HS256 secret
+            JwtKeyRing verifier = new JwtKeyRing("RS256", "", "", "",
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/jwks", false, 60000, objectMapper);
+            JwtUtils verifying = jwtUtils(verifier);
+            jwks.set(objectMapper.writeValueAsString(issuer.toJwks()));
+
+            // Act
+            boolean withinInterval = verifying.validateJwtToken(token) || verifying.validateJwtToken(token);
+            int fetchesWithinInterval = fetches.get();
+            ((AtomicLong) ReflectionTestUtils.getField(verifier, "lastJwksFetch")).set(0);
+            boolean afterInterval = verifying.validateJwtToken(token);
+
+            // Assert
+            assertFalse(withinInterval);
+            assertEquals(1, fetchesWithinInterval);
+            assertTrue(afterInterval);
+            assertEquals(2, fetches.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private JwtUtils jwtUtils(JwtKeyRing keyRing) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static UserPrincipal principal() {
+        return new UserPrincipal(1L, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_TEACHER")));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static void writePem(Path file, String type, byte[] der) throws Exception {
+        Files.writeString(file, "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n");
+    }
+}
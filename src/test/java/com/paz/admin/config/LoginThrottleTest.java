@@ -0,0 +1,89 @@
+package com.paz.admin.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoginThrottleTest {
+
+    @Test
+    void checkRate_WhenUserBucketIsEmpty_ShouldThrowWithRetryAfter() {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(2, 1, 100, 100, 1, 0);
+        throttle.checkRate("testuser", "10.0.0.1");
+        throttle.checkRate("testuser", "10.0.0.1");
+
+        // Act & Assert
+        LoginThrottledException exception = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkRate("testuser", "10.0.0.1"));
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+    }
+
+    @Test
+    void checkRate_ShouldTrackUsersIndependently() {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(1, 1, 100, 100, 1, 0);
+        throttle.checkRate("testuser", "10.0.0.1");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> throttle.checkRate("otheruser", "10.0.0.1"));
+        assertThrows(LoginThrottledException.class, () -> throttle.checkRate("TestUser", "10.0.0.1"));
+    }
+
+    @Test
+    void checkRate_WhenIpBucketIsEmpty_ShouldThrow() {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(100, 100, 2, 1, 1, 0);
+        throttle.checkRate("user1", "10.0.0.1");
+        throttle.checkRate("user2", "10.0.0.1");
+
+        // Act & Assert
+        assertThrows(LoginThrottledException.class, () -> throttle.checkRate("user3", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.checkRate("user3", "10.0.0.2"));
+    }
+
+    @Test
+    void tokenBucket_ShouldRefillOverTime() {
+        // Arrange
+        LoginThrottle.TokenBucket bucket = new LoginThrottle.TokenBucket(1, 60);
+        long now = System.currentTimeMillis();
+        assertEquals(0, bucket.tryConsume(now));
+
+        // Act & Assert
+        assertTrue(bucket.tryConsume(now) > 0);
+        assertEquals(0, bucket.tryConsume(now + 1000));
+    }
+
+    @Test
+    void guard_WhenAllPermitsAreInUse_ShouldThrow() throws Exception {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(100, 100, 100, 100, 1, 0);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.matches(any(), anyString())).thenAnswer(invocation -> {
+            inside.countDown();
+            release.await();
+            return true;
+        });
+        PasswordEncoder guarded = throttle.guard(delegate);
+
+        AtomicReference<Boolean> firstResult = new AtomicReference<>();
+        Thread first = new Thread(() -> firstResult.set(guarded.matches("password", "hash")));
+        first.start();
+        inside.await();
+
+        // Act & Assert
+        assertThrows(LoginThrottledException.class, () -> guarded.matches("password", "hash"));
+        release.countDown();
+        first.join();
+        assertTrue(firstResult.get());
+    }
+}
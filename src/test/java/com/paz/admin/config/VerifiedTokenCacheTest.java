@@ -0,0 +1,89 @@
+package com.paz.admin.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, new SimpleMeterRegistry(), true, 100);
+    }
+
+    @Test
+    void getVerifiedClaims_WhenTokenIsValid_ShouldVerifyOnce() {
+        // Arrange
+        when(jwtUtils.parseVerifiedClaims("token")).thenReturn(Optional.of(claimsExpiringAt(Instant.now().plusSeconds(60))));
+
+        // Act
+        Optional<JwtClaims> first = verifiedTokenCache.getVerifiedClaims("token");
+        Optional<JwtClaims> second = verifiedTokenCache.getVerifiedClaims("token");
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        verify(jwtUtils, times(1)).parseVerifiedClaims("token");
+    }
+
+    @Test
+    void getVerifiedClaims_WhenTokenIsInvalid_ShouldNotCacheResult() {
+        // Arrange
+        when(jwtUtils.parseVerifiedClaims("bad")).thenReturn(Optional.empty());
+
+        // Act
+        verifiedTokenCache.getVerifiedClaims("bad");
+        Optional<JwtClaims> result = verifiedTokenCache.getVerifiedClaims("bad");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(jwtUtils, times(2)).parseVerifiedClaims("bad");
+    }
+
+    @Test
+    void getVerifiedClaims_WhenTokenHasExpired_ShouldVerifyAgain() {
+        // Arrange
+        when(jwtUtils.parseVerifiedClaims("token")).thenReturn(Optional.of(claimsExpiringAt(Instant.now().minusSeconds(1))));
+
+        // Act
+        verifiedTokenCache.getVerifiedClaims("token");
+        verifiedTokenCache.getVerifiedClaims("token");
+
+        // Assert
+        verify(jwtUtils, times(2)).parseVerifiedClaims("token");
+    }
+
+    @Test
+    void getVerifiedClaims_WhenDisabled_ShouldAlwaysVerify() {
+        // Arrange
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, new SimpleMeterRegistry(), false, 100);
+        when(jwtUtils.parseVerifiedClaims("token")).thenReturn(Optional.of(claimsExpiringAt(Instant.now().plusSeconds(60))));
+
+        // Act
+        verifiedTokenCache.getVerifiedClaims("token");
+        verifiedTokenCache.getVerifiedClaims("token");
+
+        // Assert
+        verify(jwtUtils, times(2)).parseVerifiedClaims("token");
+    }
+
+    private JwtClaims claimsExpiringAt(Instant expiration) {
+        return new JwtClaims("testuser", 1L, List.of("ROLE_TEACHER"), Instant.now(), expiration);
+    }
+}
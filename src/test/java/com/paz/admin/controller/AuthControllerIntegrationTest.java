@@ -3,6 +3,7 @@ package com.paz.admin.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paz.admin.entity.Role;
 import com.paz.admin.entity.User;
+import com.paz.admin.payload.request.BulkSignupRequest;
 import com.paz.admin.payload.request.LoginRequest;
 import com.paz.admin.payload.request.SignupRequest;
 import com.paz.admin.repository.RoleRepository;
@@ -19,6 +20,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
@@ -184,6 +186,51 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.roles").isArray());
     }
 
+    @Test
+    void testProfileETagRevalidation() throws Exception {
+        createTestUser("etaguser", "etag@example.com");
+        String token = getAuthToken("etaguser", "password123");
+
+        MvcResult first = mockMvc.perform(get("/api/auth/profile")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        // Unchanged profile: 304 with no body
+        mockMvc.perform(get("/api/auth/profile")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A role change evicts the cached profile and changes the ETag
+        User adminUser = new User();
+        adminUser.setUsername("etagadmin");
+        adminUser.setEmail("etagadmin@example.com");
+        adminUser.setPassword(passwordEncoder.encode("password123"));
+        adminUser.setFirstName("Admin");
+        adminUser.setLastName("User");
+        adminUser.setRoles(new HashSet<>(Set.of(roleRepository.findByName("ROLE_ADMIN").orElseThrow())));
+        userRepository.save(adminUser);
+        String adminToken = getAuthToken("etagadmin", "password123");
+        Long userId = userRepository.findByUsername("etaguser").orElseThrow().getId();
+
+        mockMvc.perform(put("/api/auth/users/" + userId + "/roles")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"role\":[\"admin\"]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/profile")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"));
+    }
+
     @Test
     void testGetAllUsersAsAdmin() throws Exception {
         // Create admin user
@@ -211,7 +258,222 @@ class AuthControllerIntegrationTest {
         mockMvc.perform(get("/api/auth/users")
                 .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(3)))); // admin + 2 users
+                .andExpect(jsonPath("$.content", hasSize(greaterThanOrEqualTo(3)))) // admin + 2 users
+                .andExpect(jsonPath("$.content[0].password").doesNotExist());
+
+        // Filtered, sorted page
+        mockMvc.perform(get("/api/auth/users")
+                .param("q", "USER")
+                .param("role", "ROLE_TEACHER")
+                .param("sort", "username,desc")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].username").value("user2"))
+                .andExpect(jsonPath("$.content[0].roles[0]").value("ROLE_TEACHER"));
+
+        // Keyset pages walk every user exactly once
+        MvcResult first = mockMvc.perform(get("/api/auth/users")
+                .param("afterId", "0")
+                .param("size", "2")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.nextAfterId").isNumber())
+                .andReturn();
+        long nextAfterId = objectMapper.readTree(first.getResponse().getContentAsString()).get("nextAfterId").asLong();
+        mockMvc.perform(get("/api/auth/users")
+                .param("afterId", String.valueOf(nextAfterId))
+                .param("size", "2")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextAfterId").doesNotExist());
+
+        // Unknown sort columns are rejected
+        mockMvc.perform(get("/api/auth/users")
+                .param("sort", "password")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+
+        // Streaming export returns every user as one JSON array
+        MvcResult export = mockMvc.perform(get("/api/auth/users/export")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void testRefreshTokenRotation() throws Exception {
+        // Create user and sign in
+        createTestUser("refreshuser", "refresh@example.com");
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("refreshuser");
+        loginRequest.setPassword("password123");
+
+        MvcResult signin = mockMvc.perform(post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn();
+        String refreshToken = objectMapper.readTree(signin.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+        String refreshBody = "{\"refreshToken\":\"" + refreshToken + "\"}";
+
+        // Exchange the refresh token for a new pair
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andExpect(jsonPath("$.username").value("refreshuser"));
+
+        // Reusing the same refresh token is rejected
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshBody))
+                .andExpect(status().isUnauthorized());
+
+        // A refresh token is not accepted as a bearer token
+        mockMvc.perform(get("/api/prisons")
+                .header("Authorization", "Bearer " + refreshToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testSignoutRevokesAccessToken() throws Exception {
+        // Create user and get token
+        createTestUser("signoutuser", "signout@example.com");
+        String token = getAuthToken("signoutuser", "password123");
+
+        // The token authenticates (teachers are forbidden, not unauthorized, on prisons)
+        mockMvc.perform(get("/api/prisons")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/auth/signout")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // After signout the same token no longer authenticates
+        mockMvc.perform(get("/api/prisons")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testUserSearchMatchesWildcardCharactersLiterally() throws Exception {
+        User adminUser = new User();
+        adminUser.setUsername("searchadmin");
+        adminUser.setEmail("searchadmin@example.com");
+        adminUser.setPassword(passwordEncoder.encode("password123"));
+        adminUser.setFirstName("Admin");
+        adminUser.setLastName("User");
+        adminUser.setRoles(new HashSet<>(Set.of(roleRepository.findByName("ROLE_ADMIN").orElseThrow())));
+        userRepository.save(adminUser);
+        String adminToken = getAuthToken("searchadmin", "password123");
+
+        createTestUser("john_doe", "john_doe@example.com");
+        createTestUser("johnxdoe", "johnxdoe@example.com");
+
+        mockMvc.perform(get("/api/auth/users")
+                .param("q", "john_doe")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].username").value("john_doe"));
+
+        mockMvc.perform(get("/api/auth/users")
+                .param("q", "100%")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void testBulkSignupAsAdmin() throws Exception {
+        // Create admin user
+        User adminUser = new User();
+        adminUser.setUsername("bulkadmin");
+        adminUser.setEmail("bulkadmin@example.com");
+        adminUser.setPassword(passwordEncoder.encode("password123"));
+        adminUser.setFirstName("Admin");
+        adminUser.setLastName("User");
+        adminUser.setRoles(new HashSet<>(Set.of(roleRepository.findByName("ROLE_ADMIN").orElseThrow())));
+        userRepository.save(adminUser);
+        String adminToken = getAuthToken("bulkadmin", "password123");
+
+        createTestUser("existing", "existing@example.com");
+
+        List<SignupRequest> users = List.of(
+                signupRequest("teacher1", "teacher1@example.com"),
+                signupRequest("existing", "other@example.com"),
+                signupRequest("teacher2", "teacher1@example.com"),
+                signupRequest("teacher3", "not-an-email"),
+                signupRequest("teacher4", "teacher4@example.com"));
+        BulkSignupRequest request = new BulkSignupRequest();
+        request.setUsers(users);
+
+        mockMvc.perform(post("/api/auth/signup/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.results[0].status").value("created"))
+                .andExpect(jsonPath("$.results[0].id").isNumber())
+                .andExpect(jsonPath("$.results[1].message").value("Error: Username is already taken!"))
+                .andExpect(jsonPath("$.results[2].message").value("Error: Duplicate email in batch!"))
+                .andExpect(jsonPath("$.results[3].status").value("rejected"))
+                .andExpect(jsonPath("$.results[4].status").value("created"));
+
+        // Bulk-created users can sign in with their teacher role
+        String token = getAuthToken("teacher4", "password123");
+        mockMvc.perform(get("/api/auth/profile")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_TEACHER"));
+    }
+
+    @Test
+    void testBulkSignupRequiresAdmin() throws Exception {
+        createTestUser("plainuser", "plain@example.com");
+        String token = getAuthToken("plainuser", "password123");
+
+        BulkSignupRequest request = new BulkSignupRequest();
+        request.setUsers(List.of(signupRequest("teacher1", "teacher1@example.com")));
+
+        mockMvc.perform(post("/api/auth/signup/bulk")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testMetricsAreNotPublicOnTheApplicationPort() throws Exception {
+        // Scrapes go to the management port; only the health probes are public here
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/readyz"))
+                .andExpect(status().isOk());
+    }
+
+    private SignupRequest signupRequest(String username, String email) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        request.setFirstName("Test");
+        request.setLastName("Teacher");
+        return request;
     }
 
     private void createTestUser(String username, String email) {
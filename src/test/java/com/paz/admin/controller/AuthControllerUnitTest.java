@@ -1,7 +1,9 @@
 package com.paz.admin.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paz.admin.config.JwtKeyRing;
 import com.paz.admin.config.JwtUtils;
+import com.paz.admin.config.LoginThrottle;
 import com.paz.admin.entity.Role;
 import com.paz.admin.entity.User;
 import com.paz.admin.payload.request.LoginRequest;
@@ -9,15 +11,26 @@ import com.paz.admin.payload.request.SignupRequest;
 import com.paz.admin.payload.response.ErrorResponse;
 import com.paz.admin.payload.response.JwtResponse;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PagedResponse;
 import com.paz.admin.payload.response.UserProfileResponse;
-import com.paz.admin.repository.RoleRepository;
 import com.paz.admin.repository.UserRepository;
+import com.paz.admin.service.PasswordRehashService;
+import com.paz.admin.service.AuthEventLogger;
+import com.paz.admin.service.BulkUserProvisioningService;
+import com.paz.admin.service.RefreshTokenService;
+import com.paz.admin.service.RoleCatalog;
+import com.paz.admin.service.UserQueryService;
+import com.paz.admin.service.TokenRevocationService;
+import com.paz.admin.service.UserPrincipalCache;
+import com.paz.admin.service.UserProfileCache;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -46,10 +59,40 @@ class AuthControllerUnitTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private PasswordEncoder passwordEncoder;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private AuthEventLogger authEventLogger;
+
+    @Mock
+    private JwtKeyRing jwtKeyRing;
+
+    @Mock
+    private BulkUserProvisioningService bulkUserProvisioningService;
+
+    @Mock
+    private RoleCatalog roleCatalog;
+
+    @Mock
+    private UserQueryService userQueryService;
+
+    @Mock
+    private UserProfileCache userProfileCache;
 
     @InjectMocks
     private AuthController authController;
@@ -86,6 +129,12 @@ class AuthControllerUnitTest {
         userRole.setName("ROLE_TEACHER");
     }
 
+    @AfterEach
+    void tearDown() {
+        // Some tests put a mock authentication on this thread
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void authenticateUser_WithValidCredentials_ShouldReturnJwtResponse() throws Exception {
         // Arrange
@@ -126,7 +175,7 @@ class AuthControllerUnitTest {
         // Arrange
         when(userRepository.existsByUsername("testuser")).thenReturn(false);
         when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
-        when(roleRepository.findByName("ROLE_TEACHER")).thenReturn(Optional.of(userRole));
+        when(roleCatalog.resolve(signupRequest.getRole())).thenReturn(Set.of(userRole));
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
@@ -140,7 +189,7 @@ class AuthControllerUnitTest {
         assertEquals("User registered successfully!", messageResponse.getMessage());
         verify(userRepository, times(1)).existsByUsername("testuser");
         verify(userRepository, times(1)).existsByEmail("test@example.com");
-        verify(roleRepository, times(1)).findByName("ROLE_TEACHER");
+        verify(roleCatalog, times(1)).resolve(signupRequest.getRole());
         verify(passwordEncoder, times(1)).encode("password123");
         verify(userRepository, times(1)).save(any(User.class));
     }
@@ -187,7 +236,7 @@ class AuthControllerUnitTest {
         // Arrange
         when(userRepository.existsByUsername("testuser")).thenReturn(false);
         when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
-        when(roleRepository.findByName("ROLE_TEACHER")).thenReturn(Optional.empty());
+        when(roleCatalog.resolve(signupRequest.getRole())).thenThrow(new RuntimeException("Error: Role is not found."));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
@@ -195,7 +244,7 @@ class AuthControllerUnitTest {
         });
         verify(userRepository, times(1)).existsByUsername("testuser");
         verify(userRepository, times(1)).existsByEmail("test@example.com");
-        verify(roleRepository, times(1)).findByName("ROLE_TEACHER");
+        verify(roleCatalog, times(1)).resolve(signupRequest.getRole());
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -220,11 +269,14 @@ class AuthControllerUnitTest {
                 "testuser", "password", Collections.emptyList()) {
             public Long getId() { return 1L; }
         });
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         testUser.setRoles(Set.of(userRole));
+        UserProfileCache.CachedProfile cached = mock(UserProfileCache.CachedProfile.class);
+        when(cached.getProfile()).thenReturn(new UserProfileResponse(1L, "testuser", "test@example.com",
+                "Test", "User", List.of("ROLE_TEACHER")));
+        when(userProfileCache.get(1L)).thenReturn(Optional.of(cached));
 
         // Act
-        ResponseEntity<?> response = authController.getUserProfile();
+        ResponseEntity<?> response = authController.getUserProfile(null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -232,7 +284,7 @@ class AuthControllerUnitTest {
         UserProfileResponse profileResponse = (UserProfileResponse) response.getBody();
         assertEquals("testuser", profileResponse.getUsername());
         assertEquals("test@example.com", profileResponse.getEmail());
-        verify(userRepository, times(1)).findById(1L);
+        verify(userProfileCache, times(1)).get(1L);
     }
 
     @Test
@@ -244,50 +296,53 @@ class AuthControllerUnitTest {
                 "testuser", "password", Collections.emptyList()) {
             public Long getId() { return 1L; }
         });
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userProfileCache.get(1L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<?> response = authController.getUserProfile();
+        ResponseEntity<?> response = authController.getUserProfile(null);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse errorResponse = (ErrorResponse) response.getBody();
         assertTrue(errorResponse.getMessage().contains("Failed to get user profile"));
-        verify(userRepository, times(1)).findById(1L);
+        verify(userProfileCache, times(1)).get(1L);
     }
 
     @Test
-    void getAllUsers_AsAdmin_ShouldReturnListOfUsers() throws Exception {
+    void getAllUsers_AsAdmin_ShouldReturnPageOfUsers() throws Exception {
         // Arrange
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
-        testUser.setRoles(Set.of(userRole));
+        UserProfileResponse user = new UserProfileResponse(1L, "testuser", "test@example.com",
+                "Test", "User", List.of("ROLE_TEACHER"));
+        when(userQueryService.findPage(any(UserQueryService.UserFilter.class), eq(0), eq(20), any(Sort.class)))
+                .thenReturn(PagedResponse.ofPage(List.of(user), 0, 20, 1, 1));
 
         // Act
-        ResponseEntity<?> response = authController.getAllUsers();
+        ResponseEntity<?> response = authController.getAllUsers(0, 20, "id,asc", null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(response.getBody() instanceof List);
-        List<UserProfileResponse> userResponses = (List<UserProfileResponse>) response.getBody();
-        assertEquals(1, userResponses.size());
-        assertEquals("testuser", userResponses.get(0).getUsername());
-        verify(userRepository, times(1)).findAll();
+        assertTrue(response.getBody() instanceof PagedResponse);
+        PagedResponse<?> page = (PagedResponse<?>) response.getBody();
+        assertEquals(1, page.getContent().size());
+        assertEquals("testuser", ((UserProfileResponse) page.getContent().get(0)).getUsername());
+        assertEquals(1L, page.getTotalElements());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
     void getAllUsers_WhenRepositoryThrowsException_ShouldReturnError() throws Exception {
         // Arrange
-        when(userRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(userQueryService.findPage(any(UserQueryService.UserFilter.class), anyInt(), anyInt(), any(Sort.class)))
+                .thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<?> response = authController.getAllUsers();
+        ResponseEntity<?> response = authController.getAllUsers(0, 20, "id,asc", null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse errorResponse = (ErrorResponse) response.getBody();
         assertTrue(errorResponse.getMessage().contains("Failed to get users"));
-        verify(userRepository, times(1)).findAll();
     }
 }
\ No newline at end of file
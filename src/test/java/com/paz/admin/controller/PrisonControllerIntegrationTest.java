@@ -3,11 +3,14 @@ package com.paz.admin.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paz.admin.entity.Prison;
 import com.paz.admin.entity.Role;
+import com.paz.admin.entity.Teacher;
 import com.paz.admin.entity.User;
 import com.paz.admin.payload.request.LoginRequest;
 import com.paz.admin.repository.PrisonRepository;
 import com.paz.admin.repository.RoleRepository;
+import com.paz.admin.repository.TeacherRepository;
 import com.paz.admin.repository.UserRepository;
+import com.paz.admin.service.PrisonStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +22,17 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +47,9 @@ class PrisonControllerIntegrationTest {
     @Autowired
     private PrisonRepository prisonRepository;
 
+    @Autowired
+    private TeacherRepository teacherRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -49,11 +62,15 @@ class PrisonControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PrisonStatsService prisonStatsService;
+
     private String adminToken;
     private String managerToken;
 
     @BeforeEach
     void setUp() throws Exception {
+        teacherRepository.deleteAll();
         prisonRepository.deleteAll();
         userRepository.deleteAll();
         roleRepository.deleteAll();
@@ -180,9 +197,205 @@ class PrisonControllerIntegrationTest {
         mockMvc.perform(get("/api/prisons")
                 .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].name").value("Prison 1"))
-                .andExpect(jsonPath("$[1].name").value("Prison 2"));
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].name").value("Prison 1"))
+                .andExpect(jsonPath("$.content[1].name").value("Prison 2"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void testGetAllPrisonsWithFiltersAndKeyset() throws Exception {
+        Prison harare = new Prison("Harare Central", "Harare", 500, null, null);
+        harare.setCurrentPopulation(480);
+        prisonRepository.save(harare);
+
+        Prison hwange = new Prison("Hwange Prison", "Hwange", 200, null, null);
+        hwange.setCurrentPopulation(50);
+        prisonRepository.save(hwange);
+
+        Prison mutare = new Prison("Mutare Prison", "Mutare", 300, null, null);
+        mutare.setCurrentPopulation(290);
+        prisonRepository.save(mutare);
+
+        // Name prefix is case-insensitive
+        mockMvc.perform(get("/api/prisons")
+                .param("name", "h")
+                .param("sort", "name,desc")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].name").value("Hwange Prison"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+
+        // At least 90% full and capacity of 300 or more
+        mockMvc.perform(get("/api/prisons")
+                .param("minOccupancy", "0.9")
+                .param("minCapacity", "300")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].name").value("Harare Central"))
+                .andExpect(jsonPath("$.content[1].name").value("Mutare Prison"));
+
+        mockMvc.perform(get("/api/prisons")
+                .param("afterId", String.valueOf(harare.getId()))
+                .param("size", "1")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Hwange Prison"))
+                .andExpect(jsonPath("$.nextAfterId").value(hwange.getId()))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        mockMvc.perform(get("/api/prisons")
+                .param("sort", "contactPhone")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot sort by contactPhone"));
+
+        // Wildcard characters in the prefix match only themselves
+        prisonRepository.save(new Prison("H_Block Annex", "Harare", 100, null, null));
+        mockMvc.perform(get("/api/prisons")
+                .param("name", "h_")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("H_Block Annex"));
+    }
+
+    @Test
+    void testImportPrisonsFromCsv() throws Exception {
+        prisonRepository.save(new Prison("Existing Prison", "Harare", 100, "existing@prison.gov.zw", null));
+        prisonStatsService.rebuild();
+
+        StringBuilder csv = new StringBuilder("name,location,capacity,currentPopulation,contactEmail,contactPhone\n");
+        csv.append("\"Harare Central, Remand\",Harare,500,250,harare@prison.gov.zw,\"+263 242 123\"\n");
+        csv.append("Existing Prison,Harare,100,,,\n");
+        csv.append("Mutare Prison,Mutare,0,,,\n");
+        csv.append("No Location,,100,,,\n");
+        csv.append("Email Clash,Bulawayo,100,,existing@prison.gov.zw,\n");
+        csv.append("Bad Capacity,Gweru,lots,,,\n");
+        // Enough rows to span two insert batches; the last repeats a name from the first batch
+        for (int i = 7; i <= 1500; i++) {
+            csv.append("Prison ").append(i).append(",Location ").append(i % 10).append(",100,50,,\n");
+        }
+        csv.append("Prison 7,Somewhere,100,,,\n");
+
+        mockMvc.perform(post("/api/prisons/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("text/csv")
+                .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(1501))
+                .andExpect(jsonPath("$.imported").value(1495))
+                .andExpect(jsonPath("$.rejected").value(6))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Prison name is already taken"))
+                .andExpect(jsonPath("$.errors[1].message").value("Capacity must be greater than 0"))
+                .andExpect(jsonPath("$.errors[2].message").value("Location is required"))
+                .andExpect(jsonPath("$.errors[3].message").value("Contact email is already in use"))
+                .andExpect(jsonPath("$.errors[4].message").value("capacity must be a whole number"))
+                .andExpect(jsonPath("$.errors[5].row").value(1501))
+                .andExpect(jsonPath("$.errors[5].message").value("Prison name is already taken"));
+
+        mockMvc.perform(get("/api/prisons")
+                .param("name", "Harare Central")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Harare Central, Remand"))
+                .andExpect(jsonPath("$.content[0].contactPhone").value("+263 242 123"))
+                .andExpect(jsonPath("$.content[0].currentPopulation").value(250));
+
+        // The occupancy rollup is rebuilt after an import
+        mockMvc.perform(get("/api/prisons/stats")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prisonCount").value(1496));
+
+        mockMvc.perform(post("/api/prisons/import")
+                .header("Authorization", "Bearer " + managerToken)
+                .contentType("text/csv")
+                .content(csv.toString()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testExportPrisonsAsGzippedCsv() throws Exception {
+        Prison harare = new Prison("Harare Central, Remand", "Harare", 500, "harare@prison.gov.zw", null);
+        harare.setCurrentPopulation(250);
+        prisonRepository.save(harare);
+        prisonRepository.save(new Prison("Mutare \"New\" Prison", "Mutare", 300, null, "+263 20 123"));
+        prisonRepository.save(new Prison("=HYPERLINK(\"http://x\",\"y\")", "@Gweru", 100, null, null));
+
+        MvcResult result = mockMvc.perform(get("/api/prisons/export")
+                .header("Authorization", "Bearer " + managerToken)
+                .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"prisons.csv\""))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,name,location,capacity,currentPopulation,contactEmail,contactPhone,createdAt,updatedAt,version", lines[0]);
+        assertTrue(lines[1].contains(",\"Harare Central, Remand\",Harare,500,250,harare@prison.gov.zw,,"));
+        // Values a spreadsheet would evaluate as formulas are written as text
+        assertTrue(lines[2].contains(",\"Mutare \"\"New\"\" Prison\",Mutare,300,0,,'+263 20 123,"));
+        assertTrue(lines[3].contains(",\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'@Gweru,100,0,,,"));
+
+        mockMvc.perform(get("/api/prisons/export")
+                .param("format", "xml")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("format must be csv or ndjson"));
+    }
+
+    @Test
+    void testPrisonStatsFollowWrites() throws Exception {
+        // Rows were deleted directly by setUp, so start from a fresh rollup
+        prisonStatsService.rebuild();
+
+        Prison harare = new Prison("Harare Central", "Harare", 100, null, null);
+        harare.setCurrentPopulation(120);
+        MvcResult created = mockMvc.perform(post("/api/prisons")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(harare)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long harareId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        Prison mutare = new Prison("Mutare Prison", "Mutare", 300, null, null);
+        mutare.setCurrentPopulation(150);
+        mockMvc.perform(post("/api/prisons")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(mutare)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/prisons/stats")
+                .header("Authorization", "Bearer " + managerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prisonCount").value(2))
+                .andExpect(jsonPath("$.totalCapacity").value(400))
+                .andExpect(jsonPath("$.totalPopulation").value(270))
+                .andExpect(jsonPath("$.overcrowdedCount").value(1))
+                .andExpect(jsonPath("$.mostOvercrowded[0].name").value("Harare Central"))
+                .andExpect(jsonPath("$.locations", hasSize(2)));
+
+        mockMvc.perform(delete("/api/prisons/" + harareId)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/prisons/stats")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prisonCount").value(1))
+                .andExpect(jsonPath("$.occupancy").value(0.5))
+                .andExpect(jsonPath("$.overcrowdedCount").value(0))
+                .andExpect(jsonPath("$.locations[0].location").value("Mutare"));
     }
 
     @Test
@@ -283,6 +496,68 @@ class PrisonControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testBulkUpdateAndDeletePrisons() throws Exception {
+        Prison north = prisonRepository.save(new Prison("North", "Harare", 100, null, null));
+        Prison south = prisonRepository.save(new Prison("South", "Bulawayo", 200, null, null));
+        Teacher john = teacherRepository.save(new Teacher("John", "Doe", "john.doe@example.com", null, null, null, south));
+
+        String items = "[{\"id\":" + north.getId() + ",\"version\":" + north.getVersion() + "}," +
+                "{\"id\":" + south.getId() + ",\"version\":" + south.getVersion() + "}]";
+        mockMvc.perform(patch("/api/prisons/bulk")
+                .header("Authorization", "Bearer " + managerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":" + items + ",\"capacity\":300}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(patch("/api/prisons/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":" + items + ",\"capacity\":300}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(300, prisonRepository.findById(north.getId()).get().getCapacity());
+
+        // The versions read before the update are now stale
+        mockMvc.perform(delete("/api/prisons/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":" + items + "}"))
+                .andExpect(status().isConflict());
+
+        assertEquals(south.getId(), teacherRepository.findById(john.getId()).get().getPrison().getId());
+
+        // Teachers of deleted prisons stay, unassigned and with a new version
+        Prison northNow = prisonRepository.findById(north.getId()).get();
+        Prison southNow = prisonRepository.findById(south.getId()).get();
+        mockMvc.perform(delete("/api/prisons/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"id\":" + northNow.getId() + ",\"version\":" + northNow.getVersion() + "}," +
+                        "{\"id\":" + southNow.getId() + ",\"version\":" + southNow.getVersion() + "}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(0, prisonRepository.count());
+        Teacher unassigned = teacherRepository.findById(john.getId()).get();
+        assertNull(unassigned.getPrison());
+        assertEquals(john.getVersion() + 1, unassigned.getVersion());
+    }
+
+    @Test
+    void testDeletePrisonUnassignsItsTeachers() throws Exception {
+        Prison prison = prisonRepository.save(new Prison("Occupied", "Harare", 50, null, null));
+        Teacher john = teacherRepository.save(new Teacher("John", "Doe", "john.doe@example.com", null, null, null, prison));
+
+        mockMvc.perform(delete("/api/prisons/" + prison.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Prison deleted successfully"));
+        assertFalse(prisonRepository.existsById(prison.getId()));
+        Teacher unassigned = teacherRepository.findById(john.getId()).get();
+        assertNull(unassigned.getPrison());
+        assertEquals(john.getVersion() + 1, unassigned.getVersion());
+    }
+
     @Test
     void testDeleteNonExistentPrison() throws Exception {
         mockMvc.perform(delete("/api/prisons/999")
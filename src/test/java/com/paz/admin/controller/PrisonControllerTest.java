@@ -3,22 +3,39 @@ package com.paz.admin.controller;
 import com.paz.admin.entity.Prison;
 import com.paz.admin.payload.response.ErrorResponse;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.PrisonView;
+import com.paz.admin.repository.DataConstraints;
 import com.paz.admin.repository.PrisonRepository;
+import com.paz.admin.service.BulkWriteService;
+import com.paz.admin.service.PrisonQueryService;
+import com.paz.admin.service.PrisonStatsService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PrisonControllerTest {
@@ -26,6 +43,15 @@ class PrisonControllerTest {
     @Mock
     private PrisonRepository prisonRepository;
 
+    @Mock
+    private PrisonQueryService prisonQueryService;
+
+    @Mock
+    private PrisonStatsService prisonStatsService;
+
+    @Mock
+    private BulkWriteService bulkWriteService;
+
     @InjectMocks
     private PrisonController prisonController;
 
@@ -35,6 +61,11 @@ class PrisonControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
+        // Setup request context for error responses
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/api/prisons");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
         prison = new Prison();
         prison.setId(1L);
         prison.setName("Harare Central Prison");
@@ -45,60 +76,66 @@ class PrisonControllerTest {
         prison.setContactPhone("+263242123456");
     }
 
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getAllPrisons_ShouldReturnListOfPrisons() {
         // Arrange
         List<Prison> prisons = Arrays.asList(prison);
-        when(prisonRepository.findAll()).thenReturn(prisons);
+        when(prisonQueryService.findPage(any(PrisonQueryService.PrisonFilter.class), eq(0), eq(20), any(Sort.class)))
+                .thenReturn(PagedResponse.ofPage(prisons, 0, 20, 1, 1));
 
         // Act
-        List<Prison> result = prisonController.getAllPrisons();
+        ResponseEntity<?> response = prisonController.getAllPrisons(0, 20, "name,asc", null, null, null, null, null, null, null);
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(prison.getName(), result.get(0).getName());
-        verify(prisonRepository, times(1)).findAll();
+        assertEquals(1, result.getContent().size());
+        assertEquals(prison.getName(), ((Prison) result.getContent().get(0)).getName());
+        verify(prisonQueryService, times(1)).findPage(any(PrisonQueryService.PrisonFilter.class), eq(0), eq(20), any(Sort.class));
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getPrisonById_WhenPrisonExists_ShouldReturnPrison() {
         // Arrange
-        when(prisonRepository.findById(1L)).thenReturn(Optional.of(prison));
+        when(prisonQueryService.findById(1L)).thenReturn(Optional.of(PrisonView.from(prison)));
 
         // Act
-        ResponseEntity<Prison> response = prisonController.getPrisonById(1L);
+        ResponseEntity<PrisonView> response = prisonController.getPrisonById(1L);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(prison.getName(), response.getBody().getName());
-        verify(prisonRepository, times(1)).findById(1L);
+        verify(prisonQueryService, times(1)).findById(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getPrisonById_WhenPrisonNotFound_ShouldReturnNotFound() {
         // Arrange
-        when(prisonRepository.findById(1L)).thenReturn(Optional.empty());
+        when(prisonQueryService.findById(1L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Prison> response = prisonController.getPrisonById(1L);
+        ResponseEntity<PrisonView> response = prisonController.getPrisonById(1L);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(prisonRepository, times(1)).findById(1L);
+        verify(prisonQueryService, times(1)).findById(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void createPrison_WithValidData_ShouldCreatePrison() {
         // Arrange
-        when(prisonRepository.existsByName(prison.getName())).thenReturn(false);
-        when(prisonRepository.existsByContactEmail(prison.getContactEmail())).thenReturn(false);
         when(prisonRepository.save(any(Prison.class))).thenReturn(prison);
 
         // Act
@@ -109,13 +146,15 @@ class PrisonControllerTest {
         assertNotNull(response.getBody());
         assertTrue(response.getBody() instanceof Prison);
         verify(prisonRepository, times(1)).save(any(Prison.class));
+        verify(prisonStatsService, times(1)).onSaved(0L, null, prison);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void createPrison_WithDuplicateName_ShouldReturnConflict() {
         // Arrange
-        when(prisonRepository.existsByName(prison.getName())).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_NAME));
 
         // Act
         ResponseEntity<?> response = prisonController.createPrison(prison);
@@ -125,15 +164,14 @@ class PrisonControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison name is already taken", error.getMessage());
-        verify(prisonRepository, never()).save(any(Prison.class));
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void createPrison_WithDuplicateEmail_ShouldReturnConflict() {
         // Arrange
-        when(prisonRepository.existsByName(prison.getName())).thenReturn(false);
-        when(prisonRepository.existsByContactEmail(prison.getContactEmail())).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_CONTACT_EMAIL));
 
         // Act
         ResponseEntity<?> response = prisonController.createPrison(prison);
@@ -143,7 +181,6 @@ class PrisonControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Contact email is already in use", error.getMessage());
-        verify(prisonRepository, never()).save(any(Prison.class));
     }
 
     @Test
@@ -210,8 +247,6 @@ class PrisonControllerTest {
         updatedPrison.setContactPhone("+263242654321");
 
         when(prisonRepository.findById(1L)).thenReturn(Optional.of(prison));
-        when(prisonRepository.existsByName(updatedPrison.getName())).thenReturn(false);
-        when(prisonRepository.existsByContactEmail(updatedPrison.getContactEmail())).thenReturn(false);
         when(prisonRepository.save(any(Prison.class))).thenReturn(updatedPrison);
 
         // Act
@@ -249,9 +284,11 @@ class PrisonControllerTest {
         // Arrange
         Prison updatedPrison = new Prison();
         updatedPrison.setName("Duplicate Prison Name");
+        updatedPrison.setLocation("Harare");
 
         when(prisonRepository.findById(1L)).thenReturn(Optional.of(prison));
-        when(prisonRepository.existsByName(updatedPrison.getName())).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_NAME));
 
         // Act
         ResponseEntity<?> response = prisonController.updatePrison(1L, updatedPrison);
@@ -261,15 +298,15 @@ class PrisonControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison name is already taken", error.getMessage());
-        verify(prisonRepository, never()).save(any(Prison.class));
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void deletePrison_WhenPrisonExists_ShouldDeletePrison() {
         // Arrange
-        when(prisonRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(prisonRepository).deleteById(1L);
+        Prison prison = new Prison("Test Prison", "Test Location", 100, null, null);
+        when(prisonRepository.findById(1L)).thenReturn(Optional.of(prison));
+        when(bulkWriteService.deletePrisons(anyList())).thenReturn(1);
 
         // Act
         ResponseEntity<?> response = prisonController.deletePrison(1L);
@@ -279,14 +316,16 @@ class PrisonControllerTest {
         assertTrue(response.getBody() instanceof MessageResponse);
         MessageResponse message = (MessageResponse) response.getBody();
         assertEquals("Prison deleted successfully", message.getMessage());
-        verify(prisonRepository, times(1)).deleteById(1L);
+        verify(bulkWriteService, times(1)).deletePrisons(argThat(items -> items.size() == 1
+                && items.get(0).getId().equals(1L) && Objects.equals(items.get(0).getVersion(), prison.getVersion())));
+        verify(prisonStatsService, times(1)).onDeleted(anyLong(), any(PrisonStatsService.Figures.class));
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void deletePrison_WhenPrisonNotFound_ShouldReturnNotFound() {
         // Arrange
-        when(prisonRepository.existsById(1L)).thenReturn(false);
+        when(prisonRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<?> response = prisonController.deletePrison(1L);
@@ -296,6 +335,10 @@ class PrisonControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison not found with id: 1", error.getMessage());
-        verify(prisonRepository, never()).deleteById(1L);
+        verify(bulkWriteService, never()).deletePrisons(anyList());
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement; constraint [" + constraint + "]");
     }
-}
\ No newline at end of file
+}
@@ -3,13 +3,21 @@ package com.paz.admin.controller;
 import com.paz.admin.entity.Prison;
 import com.paz.admin.payload.response.ErrorResponse;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.PrisonView;
+import com.paz.admin.repository.DataConstraints;
 import com.paz.admin.repository.PrisonRepository;
+import com.paz.admin.service.BulkWriteService;
+import com.paz.admin.service.PrisonQueryService;
+import com.paz.admin.service.PrisonStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -18,10 +26,16 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +44,15 @@ class PrisonControllerUnitTest {
     @Mock
     private PrisonRepository prisonRepository;
 
+    @Mock
+    private PrisonQueryService prisonQueryService;
+
+    @Mock
+    private PrisonStatsService prisonStatsService;
+
+    @Mock
+    private BulkWriteService bulkWriteService;
+
     @InjectMocks
     private PrisonController prisonController;
 
@@ -63,53 +86,87 @@ class PrisonControllerUnitTest {
     @Test
     void testGetAllPrisons_Success() {
         // Arrange
-        when(prisonRepository.findAll()).thenReturn(Arrays.asList(testPrison, testPrison2));
+        PagedResponse<Prison> page = PagedResponse.ofPage(Arrays.asList(testPrison, testPrison2), 0, 20, 2, 1);
+        when(prisonQueryService.findPage(any(PrisonQueryService.PrisonFilter.class), eq(0), eq(20), any(Sort.class)))
+                .thenReturn(page);
 
         // Act
-        List<Prison> result = prisonController.getAllPrisons();
+        ResponseEntity<?> response = prisonController.getAllPrisons(0, 20, "id,asc", null, null, null, null, null, null, null);
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Harare Central Prison", result.get(0).getName());
-        assertEquals("Chikurubi Maximum", result.get(1).getName());
-        verify(prisonRepository, times(1)).findAll();
+        assertEquals(2, result.getContent().size());
+        assertEquals(2L, result.getTotalElements());
+        assertEquals("Harare Central Prison", ((Prison) result.getContent().get(0)).getName());
+        assertEquals("Chikurubi Maximum", ((Prison) result.getContent().get(1)).getName());
+        verify(prisonQueryService, times(1)).findPage(any(PrisonQueryService.PrisonFilter.class), eq(0), eq(20), any(Sort.class));
+    }
+
+    @Test
+    void testGetAllPrisons_WithAfterId_UsesKeysetPage() {
+        // Arrange
+        when(prisonQueryService.findAfter(any(PrisonQueryService.PrisonFilter.class), eq(1L), eq(1)))
+                .thenReturn(PagedResponse.ofKeyset(List.of(testPrison2), 1, 2L));
+
+        // Act
+        ResponseEntity<?> response = prisonController.getAllPrisons(0, 1, "id,asc", null, null, null, null, null, null, 1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
+        assertNotNull(result);
+        assertEquals(2L, result.getNextAfterId());
+        assertNull(result.getTotalElements());
+        verify(prisonQueryService, never()).findPage(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void testGetAllPrisons_InvalidCapacityRange() {
+        // Act
+        ResponseEntity<?> response = prisonController.getAllPrisons(0, 20, "id,asc", null, null, 500, 100, null, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorResponse error = (ErrorResponse) response.getBody();
+        assertNotNull(error);
+        assertEquals("minCapacity must not exceed maxCapacity", error.getMessage());
+        verifyNoInteractions(prisonQueryService);
     }
 
     @Test
     void testGetPrisonById_Success() {
         // Arrange
-        when(prisonRepository.findById(1L)).thenReturn(Optional.of(testPrison));
+        when(prisonQueryService.findById(1L)).thenReturn(Optional.of(PrisonView.from(testPrison)));
 
         // Act
-        ResponseEntity<Prison> response = prisonController.getPrisonById(1L);
+        ResponseEntity<PrisonView> response = prisonController.getPrisonById(1L);
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
         assertNotNull(response.getBody());
         assertEquals("Harare Central Prison", response.getBody().getName());
-        verify(prisonRepository, times(1)).findById(1L);
+        verify(prisonQueryService, times(1)).findById(1L);
     }
 
     @Test
     void testGetPrisonById_NotFound() {
         // Arrange
-        when(prisonRepository.findById(999L)).thenReturn(Optional.empty());
+        when(prisonQueryService.findById(999L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Prison> response = prisonController.getPrisonById(999L);
+        ResponseEntity<PrisonView> response = prisonController.getPrisonById(999L);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(prisonRepository, times(1)).findById(999L);
+        verify(prisonQueryService, times(1)).findById(999L);
     }
 
     @Test
     void testCreatePrison_Success() {
         // Arrange
-        when(prisonRepository.existsByName("Harare Central Prison")).thenReturn(false);
-        when(prisonRepository.existsByContactEmail("harare@prison.gov.zw")).thenReturn(false);
         when(prisonRepository.save(any(Prison.class))).thenReturn(testPrison);
 
         // Act
@@ -121,8 +178,6 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof Prison);
         Prison createdPrison = (Prison) response.getBody();
         assertEquals("Harare Central Prison", createdPrison.getName());
-        verify(prisonRepository, times(1)).existsByName("Harare Central Prison");
-        verify(prisonRepository, times(1)).existsByContactEmail("harare@prison.gov.zw");
         verify(prisonRepository, times(1)).save(any(Prison.class));
     }
 
@@ -204,7 +259,8 @@ class PrisonControllerUnitTest {
     @Test
     void testCreatePrison_DuplicateName() {
         // Arrange
-        when(prisonRepository.existsByName("Harare Central Prison")).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_NAME));
 
         // Act
         ResponseEntity<?> response = prisonController.createPrison(testPrison);
@@ -214,8 +270,7 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison name is already taken", error.getMessage());
-        verify(prisonRepository, times(1)).existsByName("Harare Central Prison");
-        verify(prisonRepository, never()).save(any());
+        verify(prisonStatsService, never()).onSaved(anyLong(), any(), any());
     }
 
     @Test
@@ -227,8 +282,6 @@ class PrisonControllerUnitTest {
         invalidPrison.setCapacity(100);
         invalidPrison.setContactEmail("invalid-email");
 
-        when(prisonRepository.existsByName("Test Prison")).thenReturn(false);
-
         // Act
         ResponseEntity<?> response = prisonController.createPrison(invalidPrison);
 
@@ -237,15 +290,14 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Invalid contact email format", error.getMessage());
-        verify(prisonRepository, times(1)).existsByName("Test Prison");
         verify(prisonRepository, never()).save(any());
     }
 
     @Test
     void testCreatePrison_DuplicateEmail() {
         // Arrange
-        when(prisonRepository.existsByName("Harare Central Prison")).thenReturn(false);
-        when(prisonRepository.existsByContactEmail("harare@prison.gov.zw")).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_CONTACT_EMAIL));
 
         // Act
         ResponseEntity<?> response = prisonController.createPrison(testPrison);
@@ -255,16 +307,13 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Contact email is already in use", error.getMessage());
-        verify(prisonRepository, times(1)).existsByName("Harare Central Prison");
-        verify(prisonRepository, times(1)).existsByContactEmail("harare@prison.gov.zw");
-        verify(prisonRepository, never()).save(any());
+        verify(prisonStatsService, never()).onSaved(anyLong(), any(), any());
     }
 
     @Test
     void testUpdatePrison_Success() {
         // Arrange
         when(prisonRepository.findById(1L)).thenReturn(Optional.of(testPrison));
-        when(prisonRepository.existsByName("Updated Prison")).thenReturn(false);
         when(prisonRepository.save(any(Prison.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Prison updatedPrison = new Prison();
@@ -287,7 +336,6 @@ class PrisonControllerUnitTest {
         assertEquals("Updated Location", result.getLocation());
         assertEquals(600, result.getCapacity());
         verify(prisonRepository, times(1)).findById(1L);
-        verify(prisonRepository, times(1)).existsByName("Updated Prison");
         verify(prisonRepository, times(1)).save(any(Prison.class));
     }
 
@@ -317,7 +365,8 @@ class PrisonControllerUnitTest {
     void testUpdatePrison_DuplicateName() {
         // Arrange
         when(prisonRepository.findById(1L)).thenReturn(Optional.of(testPrison));
-        when(prisonRepository.existsByName("Duplicate Prison")).thenReturn(true);
+        when(prisonRepository.save(any(Prison.class)))
+                .thenThrow(violation(DataConstraints.PRISONS_NAME));
 
         Prison updatedPrison = new Prison();
         updatedPrison.setName("Duplicate Prison");
@@ -333,15 +382,15 @@ class PrisonControllerUnitTest {
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison name is already taken", error.getMessage());
         verify(prisonRepository, times(1)).findById(1L);
-        verify(prisonRepository, times(1)).existsByName("Duplicate Prison");
-        verify(prisonRepository, never()).save(any());
+        verify(prisonStatsService, never()).onSaved(anyLong(), any(), any());
     }
 
     @Test
     void testDeletePrison_Success() {
         // Arrange
-        when(prisonRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(prisonRepository).deleteById(1L);
+        Prison prison = new Prison("Test Prison", "Test Location", 100, null, null);
+        when(prisonRepository.findById(1L)).thenReturn(Optional.of(prison));
+        when(bulkWriteService.deletePrisons(anyList())).thenReturn(1);
 
         // Act
         ResponseEntity<?> response = prisonController.deletePrison(1L);
@@ -351,14 +400,15 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof MessageResponse);
         MessageResponse message = (MessageResponse) response.getBody();
         assertEquals("Prison deleted successfully", message.getMessage());
-        verify(prisonRepository, times(1)).existsById(1L);
-        verify(prisonRepository, times(1)).deleteById(1L);
+        verify(prisonRepository, times(1)).findById(1L);
+        verify(bulkWriteService, times(1)).deletePrisons(argThat(items -> items.size() == 1
+                && items.get(0).getId().equals(1L) && Objects.equals(items.get(0).getVersion(), prison.getVersion())));
     }
 
     @Test
     void testDeletePrison_NotFound() {
         // Arrange
-        when(prisonRepository.existsById(999L)).thenReturn(false);
+        when(prisonRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<?> response = prisonController.deletePrison(999L);
@@ -368,8 +418,8 @@ class PrisonControllerUnitTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison not found with id: 999", error.getMessage());
-        verify(prisonRepository, times(1)).existsById(999L);
-        verify(prisonRepository, never()).deleteById(any());
+        verify(prisonRepository, times(1)).findById(999L);
+        verify(bulkWriteService, never()).deletePrisons(anyList());
     }
 
     @Test
@@ -398,4 +448,8 @@ class PrisonControllerUnitTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement; constraint [" + constraint + "]");
+    }
+}
@@ -1,6 +1,7 @@
 package com.paz.admin.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paz.admin.config.CacheConfig;
 import com.paz.admin.entity.Prison;
 import com.paz.admin.entity.Role;
 import com.paz.admin.entity.Teacher;
@@ -10,10 +11,15 @@ import com.paz.admin.repository.PrisonRepository;
 import com.paz.admin.repository.RoleRepository;
 import com.paz.admin.repository.TeacherRepository;
 import com.paz.admin.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,6 +31,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,6 +64,12 @@ class TeacherControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     private String adminToken;
     private Prison testPrison;
 
@@ -199,6 +215,167 @@ class TeacherControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Prison not found"));
     }
 
+    @Test
+    void testImportTeachersFromNdjson() throws Exception {
+        Teacher existing = new Teacher("Jane", "Smith", "jane.smith@example.com", null, "Science", 5, testPrison);
+        teacherRepository.save(existing);
+
+        String ndjson = String.join("\n",
+                "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\",\"specialization\":\"Mathematics\",\"yearsOfExperience\":4,\"prisonName\":\"Test Prison\"}",
+                "{\"firstName\":\"Mary\",\"lastName\":\"Moyo\",\"email\":\"mary.moyo@example.com\",\"prisonId\":" + testPrison.getId() + "}",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"email\":\"jane.smith@example.com\"}",
+                "{\"firstName\":\"Peter\",\"lastName\":\"Ncube\",\"email\":\"peter.ncube@example.com\",\"prisonName\":\"Nowhere\"}",
+                "{\"firstName\":\"Ann\",\"lastName\":\"Banda\",\"email\":\"not-an-email\"}",
+                "{\"firstName\":\"Tom\",\"lastName\":\"Dube\",\"email\":\"john.doe@example.com\"}",
+                "{\"firstName\":\"Sam\",\"lastName\":\"Phiri\",\"email\":\"sam.phiri@example.com\",\"yearsOfExperience\":-1}",
+                "");
+
+        mockMvc.perform(post("/api/teachers/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(7))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(5))
+                .andExpect(jsonPath("$.errors[*].row", contains(3, 4, 5, 6, 7)))
+                .andExpect(jsonPath("$.errors[0].message").value("Email is already in use"))
+                .andExpect(jsonPath("$.errors[1].message").value("Prison not found"))
+                .andExpect(jsonPath("$.errors[2].message").value("Invalid email format"))
+                .andExpect(jsonPath("$.errors[3].message").value("Email is repeated in the import"))
+                .andExpect(jsonPath("$.errors[4].message").value("Years of experience cannot be negative"));
+
+        mockMvc.perform(get("/api/teachers/prison/" + testPrison.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[1].email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.content[1].prison.name").value("Test Prison"))
+                .andExpect(jsonPath("$.content[1].createdAt").exists());
+
+        // A malformed body imports nothing
+        mockMvc.perform(post("/api/teachers/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/x-ndjson")
+                .content("{\"firstName\":\"Kim\",\"lastName\":\"Zulu\",\"email\":\"kim.zulu@example.com\"}\n{oops"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Record 2 is not valid JSON"));
+        assertEquals(3, teacherRepository.count());
+    }
+
+    @Test
+    void testExportTeachersAsNdjsonRoundTrips() throws Exception {
+        Prison other = prisonRepository.save(new Prison("Other Prison", "Mutare", 50, null, null));
+        teacherRepository.save(new Teacher("John", "Doe", "john.doe@example.com", null, "Mathematics", 4, testPrison));
+        teacherRepository.save(new Teacher("Mary", "Moyo", "mary.moyo@example.com", "+263 77 1", null, null, testPrison));
+        teacherRepository.save(new Teacher("Tom", "Dube", "tom.dube@example.com", null, "Science", 2, other));
+
+        MvcResult result = mockMvc.perform(get("/api/teachers/export")
+                .param("format", "ndjson")
+                .param("prisonId", testPrison.getId().toString())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+
+        String ndjson = result.getResponse().getContentAsString();
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("john.doe@example.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals(4, objectMapper.readTree(lines[0]).get("yearsOfExperience").asInt());
+        assertEquals("Test Prison", objectMapper.readTree(lines[0]).get("prisonName").asText());
+        assertEquals("+263 77 1", objectMapper.readTree(lines[1]).get("phoneNumber").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("specialization").isNull());
+
+        // The export is valid import input
+        teacherRepository.deleteAll();
+        mockMvc.perform(post("/api/teachers/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+        assertEquals(2, teacherRepository.count());
+    }
+
+    @Test
+    void testBulkUpdateAndDeleteTeachersCheckVersions() throws Exception {
+        Prison other = prisonRepository.save(new Prison("Other Prison", "Mutare", 50, null, null));
+        Teacher john = teacherRepository.save(new Teacher("John", "Doe", "john.doe@example.com", null, "Mathematics", 4, testPrison));
+        Teacher mary = teacherRepository.save(new Teacher("Mary", "Moyo", "mary.moyo@example.com", null, null, null, testPrison));
+
+        // A stale version rejects the whole request
+        String stale = "{\"items\":[{\"id\":" + john.getId() + ",\"version\":" + john.getVersion() + "}," +
+                "{\"id\":" + mary.getId() + ",\"version\":" + (mary.getVersion() + 1) + "}]," +
+                "\"specialization\":\"Science\"}";
+        mockMvc.perform(patch("/api/teachers/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(stale))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(containsString("1 of 2 teachers")));
+        assertEquals("Mathematics", teacherRepository.findById(john.getId()).get().getSpecialization());
+
+        String current = "{\"items\":[{\"id\":" + john.getId() + ",\"version\":" + john.getVersion() + "}," +
+                "{\"id\":" + mary.getId() + ",\"version\":" + mary.getVersion() + "}]," +
+                "\"specialization\":\"Science\"}";
+        mockMvc.perform(patch("/api/teachers/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(current))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        Teacher updated = teacherRepository.findById(mary.getId()).get();
+        assertEquals("Science", updated.getSpecialization());
+        assertEquals(mary.getVersion() + 1, updated.getVersion());
+
+        // Move everyone out of the test prison
+        mockMvc.perform(patch("/api/teachers/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromPrisonId\":" + testPrison.getId() + ",\"prisonId\":" + other.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(other.getId(), teacherRepository.findById(john.getId()).get().getPrison().getId());
+
+        Teacher moved = teacherRepository.findById(john.getId()).get();
+        mockMvc.perform(delete("/api/teachers/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"id\":" + moved.getId() + ",\"version\":" + moved.getVersion() + "}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertTrue(teacherRepository.findById(john.getId()).isEmpty());
+        assertEquals(1, teacherRepository.count());
+    }
+
+    @Test
+    void testBulkDeleteTeachersRequiresAdmin() throws Exception {
+        // Managers cannot delete a single teacher, so they cannot delete many either
+        User managerUser = new User();
+        managerUser.setUsername("manager");
+        managerUser.setEmail("manager@example.com");
+        managerUser.setPassword(passwordEncoder.encode("password123"));
+        managerUser.setFirstName("Manager");
+        managerUser.setLastName("User");
+
+        Set<Role> managerRoles = new HashSet<>();
+        managerRoles.add(roleRepository.findByName("ROLE_PRISON_MANAGER").get());
+        managerUser.setRoles(managerRoles);
+        userRepository.save(managerUser);
+        String managerToken = getAuthToken("manager", "password123");
+
+        Teacher john = teacherRepository.save(new Teacher("John", "Doe", "john.doe@example.com", null, null, null, testPrison));
+
+        mockMvc.perform(delete("/api/teachers/bulk")
+                .header("Authorization", "Bearer " + managerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"id\":" + john.getId() + ",\"version\":" + john.getVersion() + "}]}"))
+                .andExpect(status().isForbidden());
+        assertTrue(teacherRepository.existsById(john.getId()));
+    }
+
     @Test
     void testGetAllTeachers() throws Exception {
         // Create some teachers
@@ -225,9 +402,153 @@ class TeacherControllerIntegrationTest {
         mockMvc.perform(get("/api/teachers")
                 .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].firstName").value("Teacher"))
-                .andExpect(jsonPath("$[1].firstName").value("Teacher"));
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].firstName").value("Teacher"))
+                .andExpect(jsonPath("$.content[1].firstName").value("Teacher"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void testTeacherListingLoadsPrisonsInTheSameQuery() throws Exception {
+        for (int p = 0; p < 3; p++) {
+            Prison prison = new Prison("Prison " + p, "Location " + p, 100, null, null);
+            prisonRepository.save(prison);
+            for (int t = 0; t < 10; t++) {
+                teacherRepository.save(new Teacher("Teacher" + t, "P" + p, "t" + t + ".p" + p + "@example.com",
+                        null, "Math", t, prison));
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Warm the principal cache so only the listing itself is counted
+            mockMvc.perform(get("/api/teachers").header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+
+            statistics.clear();
+            mockMvc.perform(get("/api/teachers")
+                    .param("size", "20")
+                    .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(20)))
+                    .andExpect(jsonPath("$.content[0].prison.name").value("Prison 0"))
+                    .andExpect(jsonPath("$.content[19].prison.name").value("Prison 1"))
+                    .andExpect(jsonPath("$.totalElements").value(30));
+            // Page select plus count
+            assertEquals(2, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            mockMvc.perform(get("/api/teachers")
+                    .param("afterId", "0")
+                    .param("size", "50")
+                    .header("Authorization", "Bearer " + adminToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(30)))
+                    .andExpect(jsonPath("$.content[10].prison.name").value("Prison 1"));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void testLookupsAreCachedAndEvictedOnWrites() throws Exception {
+        Teacher teacher = teacherRepository.save(new Teacher("Cached", "Teacher", "cached@example.com",
+                null, "Math", 4, testPrison));
+        Cache prisons = cacheManager.getCache(CacheConfig.PRISONS);
+        Cache teachers = cacheManager.getCache(CacheConfig.TEACHERS);
+
+        mockMvc.perform(get("/api/teachers/" + teacher.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prison.name").value("Test Prison"));
+        mockMvc.perform(get("/api/prisons/" + testPrison.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        assertNotNull(teachers.get(teacher.getId()));
+        assertNotNull(prisons.get(testPrison.getId()));
+
+        // Renaming the prison drops it and every cached teacher view that embeds it
+        Prison renamed = new Prison("Renamed Prison", "Test Location", 100, null, null);
+        mockMvc.perform(put("/api/prisons/" + testPrison.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(renamed)))
+                .andExpect(status().isOk());
+        assertNull(prisons.get(testPrison.getId()));
+        assertNull(teachers.get(teacher.getId()));
+
+        mockMvc.perform(get("/api/teachers/" + teacher.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prison.name").value("Renamed Prison"));
+
+        mockMvc.perform(delete("/api/teachers/" + teacher.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/teachers/" + teacher.getId())
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSearchTeachers() throws Exception {
+        Teacher ann = new Teacher("Ann", "Moyo", "ann.moyo@example.com", null, "Mathematics", 2, null);
+        teacherRepository.save(ann);
+        Teacher anesu = new Teacher("Anesu", "Dube", "anesu@example.com", null, "Mathematics", 8, null);
+        teacherRepository.save(anesu);
+        Teacher brian = new Teacher("Brian", "Ncube", "brian@example.com", null, "mathematics", 12, null);
+        teacherRepository.save(brian);
+        Teacher tendai = new Teacher("Tendai", "Annan", "tendai@example.com", null, "Science", 6, null);
+        teacherRepository.save(tendai);
+
+        // Prefix matches first name, last name or email, case-insensitively
+        mockMvc.perform(get("/api/teachers")
+                .param("q", "AN")
+                .param("sort", "firstName,asc")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[0].firstName").value("Anesu"))
+                .andExpect(jsonPath("$.content[1].firstName").value("Ann"))
+                .andExpect(jsonPath("$.content[2].firstName").value("Tendai"));
+
+        mockMvc.perform(get("/api/teachers")
+                .param("specialization", "Mathematics")
+                .param("minExperience", "5")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].firstName").value("Anesu"))
+                .andExpect(jsonPath("$.content[1].firstName").value("Brian"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+
+        mockMvc.perform(get("/api/teachers")
+                .param("afterId", String.valueOf(ann.getId()))
+                .param("size", "2")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].firstName").value("Anesu"))
+                .andExpect(jsonPath("$.nextAfterId").value(brian.getId()));
+
+        mockMvc.perform(get("/api/teachers")
+                .param("minExperience", "10")
+                .param("maxExperience", "5")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minExperience must not exceed maxExperience"));
+
+        // Wildcard characters in the query match only themselves
+        teacherRepository.save(new Teacher("Mary", "Smith", "mary_smith@example.com", null, null, null, null));
+        teacherRepository.save(new Teacher("Maryx", "Smith", "maryxsmith@example.com", null, null, null, null));
+        mockMvc.perform(get("/api/teachers")
+                .param("q", "mary_smith@")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email").value("mary_smith@example.com"));
     }
 
     @Test
@@ -350,8 +671,8 @@ class TeacherControllerIntegrationTest {
         mockMvc.perform(get("/api/teachers/prison/" + testPrison.getId())
                 .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].email").value("prison1@example.com"));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email").value("prison1@example.com"));
     }
 
     @Test
@@ -381,8 +702,8 @@ class TeacherControllerIntegrationTest {
         mockMvc.perform(get("/api/teachers/specialization/Mathematics")
                 .header("Authorization", "Bearer " + adminToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].email").value("math@example.com"));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email").value("math@example.com"));
     }
 
     private String getAuthToken(String username, String password) throws Exception {
@@ -4,16 +4,27 @@ import com.paz.admin.entity.Prison;
 import com.paz.admin.entity.Teacher;
 import com.paz.admin.payload.response.ErrorResponse;
 import com.paz.admin.payload.response.MessageResponse;
+import com.paz.admin.payload.response.PagedResponse;
+import com.paz.admin.payload.response.TeacherView;
+import com.paz.admin.repository.DataConstraints;
 import com.paz.admin.repository.PrisonRepository;
 import com.paz.admin.repository.TeacherRepository;
+import com.paz.admin.service.TeacherQueryService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Arrays;
 import java.util.List;
@@ -21,6 +32,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TeacherControllerTest {
@@ -31,6 +44,9 @@ class TeacherControllerTest {
     @Mock
     private PrisonRepository prisonRepository;
 
+    @Mock
+    private TeacherQueryService teacherQueryService;
+
     @InjectMocks
     private TeacherController teacherController;
 
@@ -41,6 +57,11 @@ class TeacherControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
+        // Setup request context for error responses
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/api/teachers");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
         prison = new Prison();
         prison.setId(1L);
         prison.setName("Harare Central Prison");
@@ -58,60 +79,67 @@ class TeacherControllerTest {
         teacher.setPrison(prison);
     }
 
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getAllTeachers_ShouldReturnListOfTeachers() {
         // Arrange
-        List<Teacher> teachers = Arrays.asList(teacher);
-        when(teacherRepository.findAll()).thenReturn(teachers);
+        when(teacherQueryService.findPage(any(TeacherQueryService.TeacherFilter.class), eq(0), eq(20), any(Sort.class)))
+                .thenReturn(PagedResponse.ofPage(List.of(TeacherView.from(teacher)), 0, 20, 1, 1));
 
         // Act
-        List<Teacher> result = teacherController.getAllTeachers();
+        ResponseEntity<?> response = teacherController.getAllTeachers(0, 20, "id,asc", null, null, null, null, null, null);
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(teacher.getEmail(), result.get(0).getEmail());
-        verify(teacherRepository, times(1)).findAll();
+        assertEquals(1, result.getContent().size());
+        assertEquals(teacher.getEmail(), ((TeacherView) result.getContent().get(0)).getEmail());
+        verify(teacherQueryService, times(1)).findPage(any(TeacherQueryService.TeacherFilter.class), eq(0), eq(20), any(Sort.class));
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getTeacherById_WhenTeacherExists_ShouldReturnTeacher() {
         // Arrange
-        when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+        when(teacherQueryService.findById(1L)).thenReturn(Optional.of(TeacherView.from(teacher)));
 
         // Act
-        ResponseEntity<Teacher> response = teacherController.getTeacherById(1L);
+        ResponseEntity<TeacherView> response = teacherController.getTeacherById(1L);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(teacher.getEmail(), response.getBody().getEmail());
-        verify(teacherRepository, times(1)).findById(1L);
+        assertEquals(prison.getName(), response.getBody().getPrison().getName());
+        verify(teacherQueryService, times(1)).findById(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getTeacherById_WhenTeacherNotFound_ShouldReturnNotFound() {
         // Arrange
-        when(teacherRepository.findById(1L)).thenReturn(Optional.empty());
+        when(teacherQueryService.findById(1L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Teacher> response = teacherController.getTeacherById(1L);
+        ResponseEntity<TeacherView> response = teacherController.getTeacherById(1L);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(teacherRepository, times(1)).findById(1L);
+        verify(teacherQueryService, times(1)).findById(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void createTeacher_WithValidData_ShouldCreateTeacher() {
         // Arrange
-        when(teacherRepository.existsByEmail(teacher.getEmail())).thenReturn(false);
-        when(prisonRepository.existsById(prison.getId())).thenReturn(true);
+        when(prisonRepository.getReferenceById(prison.getId())).thenReturn(prison);
         when(teacherRepository.save(any(Teacher.class))).thenReturn(teacher);
 
         // Act
@@ -120,7 +148,8 @@ class TeacherControllerTest {
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody() instanceof Teacher);
+        assertTrue(response.getBody() instanceof TeacherView);
+        assertEquals(prison.getId(), ((TeacherView) response.getBody()).getPrison().getId());
         verify(teacherRepository, times(1)).save(any(Teacher.class));
     }
 
@@ -128,7 +157,9 @@ class TeacherControllerTest {
     @WithMockUser(roles = {"ADMIN"})
     void createTeacher_WithDuplicateEmail_ShouldReturnConflict() {
         // Arrange
-        when(teacherRepository.existsByEmail(teacher.getEmail())).thenReturn(true);
+        when(prisonRepository.getReferenceById(prison.getId())).thenReturn(prison);
+        when(teacherRepository.save(any(Teacher.class)))
+                .thenThrow(violation(DataConstraints.TEACHERS_EMAIL));
 
         // Act
         ResponseEntity<?> response = teacherController.createTeacher(teacher);
@@ -138,7 +169,6 @@ class TeacherControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Email is already in use", error.getMessage());
-        verify(teacherRepository, never()).save(any(Teacher.class));
     }
 
     @Test
@@ -162,8 +192,9 @@ class TeacherControllerTest {
     @WithMockUser(roles = {"ADMIN"})
     void createTeacher_WithNonExistentPrison_ShouldReturnNotFound() {
         // Arrange
-        when(teacherRepository.existsByEmail(teacher.getEmail())).thenReturn(false);
-        when(prisonRepository.existsById(prison.getId())).thenReturn(false);
+        when(prisonRepository.getReferenceById(prison.getId())).thenReturn(prison);
+        when(teacherRepository.save(any(Teacher.class)))
+                .thenThrow(violation(DataConstraints.TEACHERS_PRISON));
 
         // Act
         ResponseEntity<?> response = teacherController.createTeacher(teacher);
@@ -173,7 +204,6 @@ class TeacherControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Prison not found", error.getMessage());
-        verify(teacherRepository, never()).save(any(Teacher.class));
     }
 
     @Test
@@ -190,8 +220,7 @@ class TeacherControllerTest {
         updatedTeacher.setPrison(prison);
 
         when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
-        when(teacherRepository.existsByEmail(updatedTeacher.getEmail())).thenReturn(false);
-        when(prisonRepository.existsById(prison.getId())).thenReturn(true);
+        when(prisonRepository.getReferenceById(prison.getId())).thenReturn(prison);
         when(teacherRepository.save(any(Teacher.class))).thenReturn(updatedTeacher);
 
         // Act
@@ -200,8 +229,8 @@ class TeacherControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody() instanceof Teacher);
-        Teacher result = (Teacher) response.getBody();
+        assertTrue(response.getBody() instanceof TeacherView);
+        TeacherView result = (TeacherView) response.getBody();
         assertEquals("Jane", result.getFirstName());
         verify(teacherRepository, times(1)).save(any(Teacher.class));
     }
@@ -223,12 +252,29 @@ class TeacherControllerTest {
         verify(teacherRepository, never()).save(any(Teacher.class));
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void updateTeacher_WhenChangedConcurrently_ShouldReturnConflict() {
+        // Arrange
+        Teacher details = new Teacher("Jane", "Smith", "jane.smith@example.com", null, "Science", 7, prison);
+        when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+        when(prisonRepository.getReferenceById(prison.getId())).thenReturn(prison);
+        when(teacherRepository.save(any(Teacher.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Teacher.class, 1L));
+
+        // Act
+        ResponseEntity<?> response = teacherController.updateTeacher(1L, details);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Teacher was modified by another request", ((ErrorResponse) response.getBody()).getMessage());
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void deleteTeacher_WhenTeacherExists_ShouldDeleteTeacher() {
         // Arrange
-        when(teacherRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(teacherRepository).deleteById(1L);
+        when(teacherRepository.deleteAndCount(1L)).thenReturn(1);
 
         // Act
         ResponseEntity<?> response = teacherController.deleteTeacher(1L);
@@ -238,14 +284,14 @@ class TeacherControllerTest {
         assertTrue(response.getBody() instanceof MessageResponse);
         MessageResponse message = (MessageResponse) response.getBody();
         assertEquals("Teacher deleted successfully", message.getMessage());
-        verify(teacherRepository, times(1)).deleteById(1L);
+        verify(teacherRepository, times(1)).deleteAndCount(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void deleteTeacher_WhenTeacherNotFound_ShouldReturnNotFound() {
         // Arrange
-        when(teacherRepository.existsById(1L)).thenReturn(false);
+        when(teacherRepository.deleteAndCount(1L)).thenReturn(0);
 
         // Act
         ResponseEntity<?> response = teacherController.deleteTeacher(1L);
@@ -255,40 +301,48 @@ class TeacherControllerTest {
         assertTrue(response.getBody() instanceof ErrorResponse);
         ErrorResponse error = (ErrorResponse) response.getBody();
         assertEquals("Teacher not found with id: 1", error.getMessage());
-        verify(teacherRepository, never()).deleteById(1L);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getTeachersByPrison_ShouldReturnTeachers() {
         // Arrange
-        List<Teacher> teachers = Arrays.asList(teacher);
-        when(teacherRepository.findByPrisonId(1L)).thenReturn(teachers);
+        when(teacherQueryService.findAfter(any(TeacherQueryService.TeacherFilter.class), eq(0L), eq(20)))
+                .thenReturn(PagedResponse.ofKeyset(List.of(TeacherView.from(teacher)), 20, null));
 
         // Act
-        List<Teacher> result = teacherController.getTeachersByPrison(1L);
+        ResponseEntity<?> response = teacherController.getTeachersByPrison(1L, 0, 20, "id,asc", 0L);
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(teacher.getEmail(), result.get(0).getEmail());
-        verify(teacherRepository, times(1)).findByPrisonId(1L);
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextAfterId());
+        assertEquals(teacher.getEmail(), ((TeacherView) result.getContent().get(0)).getEmail());
+        verify(teacherQueryService, never()).findPage(any(), anyInt(), anyInt(), any());
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getTeachersBySpecialization_ShouldReturnTeachers() {
         // Arrange
-        List<Teacher> teachers = Arrays.asList(teacher);
-        when(teacherRepository.findBySpecialization("Mathematics")).thenReturn(teachers);
+        when(teacherQueryService.findPage(any(TeacherQueryService.TeacherFilter.class), eq(0), eq(20), any(Sort.class)))
+                .thenReturn(PagedResponse.ofPage(List.of(TeacherView.from(teacher)), 0, 20, 1, 1));
 
         // Act
-        List<Teacher> result = teacherController.getTeachersBySpecialization("Mathematics");
+        ResponseEntity<?> response = teacherController.getTeachersBySpecialization("Mathematics", 0, 20, "id,asc", null);
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        PagedResponse<?> result = (PagedResponse<?>) response.getBody();
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(teacher.getEmail(), result.get(0).getEmail());
-        verify(teacherRepository, times(1)).findBySpecialization("Mathematics");
+        assertEquals(1, result.getContent().size());
+        assertEquals(teacher.getEmail(), ((TeacherView) result.getContent().get(0)).getEmail());
+        verify(teacherQueryService, times(1)).findPage(any(TeacherQueryService.TeacherFilter.class), eq(0), eq(20), any(Sort.class));
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement; constraint [" + constraint + "]");
     }
-}
\ No newline at end of file
+}
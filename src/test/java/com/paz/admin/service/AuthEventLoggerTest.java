@@ -0,0 +1,69 @@
+package com.paz.admin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthEventLoggerTest {
+
+    @Test
+    void publish_WhenQueueFull_ShouldDropAndCount() {
+        // Arrange - consumer never started, so nothing drains the queue
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthEventLogger authEventLogger = new AuthEventLogger(meterRegistry, 2, AuthEventLogger.Level.ALL);
+
+        // Act
+        authEventLogger.success("user1", "127.0.0.1", 1_000_000);
+        authEventLogger.failure("user2", "127.0.0.1", 1_000_000, "BadCredentialsException");
+        authEventLogger.lockout("user3", "127.0.0.1", 1_000, 30);
+
+        // Assert
+        assertEquals(1, authEventLogger.getDroppedCount());
+        assertEquals(1.0, meterRegistry.get("auth.events.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("auth.events.queued").gauge().value());
+    }
+
+    @Test
+    void publish_WithFailuresLevel_ShouldSkipSuccessEvents() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthEventLogger authEventLogger = new AuthEventLogger(meterRegistry, 1, AuthEventLogger.Level.FAILURES);
+
+        // Act
+        authEventLogger.success("user1", "127.0.0.1", 1_000_000);
+        authEventLogger.failure("user2", "127.0.0.1", 1_000_000, "BadCredentialsException");
+
+        // Assert - the failure fits because the success was never queued
+        assertEquals(0, authEventLogger.getDroppedCount());
+    }
+
+    @Test
+    void start_ShouldDrainQueuedEvents() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthEventLogger authEventLogger = new AuthEventLogger(meterRegistry, 16, AuthEventLogger.Level.ALL);
+        authEventLogger.failure("user1", "127.0.0.1", 1_000_000, "BadCredentialsException");
+
+        // Act
+        authEventLogger.start();
+        authEventLogger.stop();
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("auth.events.queued").gauge().value());
+    }
+
+    @Test
+    void quoted_ShouldNotLetUsernamesForgeLinesOrFields() {
+        // Arrange
+        String forged = "bob\r\nevent=SUCCESS user=\"admin\" ip=10.0.0.1";
+
+        // Act
+        String quoted = AuthEventLogger.quoted(forged);
+
+        // Assert
+        assertEquals("\"bob\\r\\nevent=SUCCESS user=\\\"admin\\\" ip=10.0.0.1\"", quoted);
+        assertFalse(quoted.contains("\n"));
+        assertEquals("-", AuthEventLogger.quoted(null));
+    }
+}
@@ -0,0 +1,228 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Prison;
+import com.paz.admin.payload.response.PrisonStatsResponse;
+import com.paz.admin.repository.LocationFigures;
+import com.paz.admin.repository.OccupancyPercentiles;
+import com.paz.admin.repository.PrisonFigures;
+import com.paz.admin.repository.PrisonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrisonStatsServiceTest {
+
+    @Mock
+    private PrisonRepository prisonRepository;
+
+    @InjectMocks
+    private PrisonStatsService prisonStatsService;
+
+    @BeforeEach
+    void setUp() {
+        // Harare Central 120/100, Harare Remand 100/200, Mutare Prison 90/100, Bulawayo Farm 40/unrated
+        when(prisonRepository.findLocationFigures()).thenReturn(List.of(
+                location("bulawayo", "Bulawayo", 1, 0, 40, 0, 0),
+                location("harare", "Harare", 2, 300, 220, 220, 1),
+                location("mutare", "Mutare", 1, 100, 90, 90, 0)));
+        when(prisonRepository.findOccupancyPercentiles()).thenReturn(percentiles(0.9, 1.2, 1.2));
+        when(prisonRepository.findMostOccupied(any(Pageable.class))).thenReturn(List.of(
+                figures(1L, "Harare Central", "Harare", 100, 120),
+                figures(3L, "Mutare Prison", "Mutare", 100, 90),
+                figures(2L, "Harare Remand", "Harare", 200, 100)));
+    }
+
+    @Test
+    void getStats_ShouldAggregateTotalsPercentilesAndLocations() {
+        // Act
+        PrisonStatsResponse stats = prisonStatsService.getStats();
+
+        // Assert
+        assertEquals(4, stats.getPrisonCount());
+        assertEquals(400, stats.getTotalCapacity());
+        assertEquals(350, stats.getTotalPopulation());
+        // Prisons without a capacity do not count towards occupancy
+        assertEquals(0.775, stats.getOccupancy());
+        assertEquals(1, stats.getOvercrowdedCount());
+        assertEquals(0.9, stats.getOccupancyPercentiles().get("p50"));
+        assertEquals(1.2, stats.getOccupancyPercentiles().get("p90"));
+        assertEquals(List.of(1L, 3L, 2L), stats.getMostOvercrowded().stream()
+                .map(PrisonStatsResponse.PrisonOccupancy::getId).collect(Collectors.toList()));
+        assertEquals(1.2, stats.getMostOvercrowded().get(0).getOccupancy());
+
+        List<PrisonStatsResponse.LocationStats> locations = stats.getLocations();
+        assertEquals(List.of("Bulawayo", "Harare", "Mutare"), locations.stream()
+                .map(PrisonStatsResponse.LocationStats::getLocation).collect(Collectors.toList()));
+        assertNull(locations.get(0).getOccupancy());
+        assertEquals(2, locations.get(1).getPrisonCount());
+        assertEquals(0.7333, locations.get(1).getOccupancy());
+    }
+
+    @Test
+    void writes_ShouldApplyDeltasAndOnlyRequeryTheDistribution() {
+        // Arrange
+        prisonStatsService.getStats();
+        long generation = prisonStatsService.generation();
+
+        // Act
+        Prison mutare = prison(3L, "Mutare Prison", "Mutare", 100, 90);
+        PrisonStatsService.Figures before = PrisonStatsService.Figures.of(mutare);
+        mutare.setCurrentPopulation(110);
+        prisonStatsService.onSaved(generation, before, mutare);
+        prisonStatsService.onSaved(generation, null, prison(5L, "Mutare Farm", "Mutare", 50, 10));
+        prisonStatsService.onDeleted(generation,
+                PrisonStatsService.Figures.of(prison(1L, "Harare Central", "Harare", 100, 120)));
+        prisonStatsService.onDeleted(generation,
+                PrisonStatsService.Figures.of(prison(4L, "Bulawayo Farm", "Bulawayo", null, 40)));
+        PrisonStatsResponse stats = prisonStatsService.getStats();
+        prisonStatsService.getStats();
+
+        // Assert
+        assertEquals(3, stats.getPrisonCount());
+        assertEquals(350, stats.getTotalCapacity());
+        assertEquals(220, stats.getTotalPopulation());
+        assertEquals(1, stats.getOvercrowdedCount());
+        assertEquals(List.of("Harare", "Mutare"), stats.getLocations().stream()
+                .map(PrisonStatsResponse.LocationStats::getLocation).collect(Collectors.toList()));
+        assertEquals(2, stats.getLocations().get(1).getPrisonCount());
+        assertEquals(0.8, stats.getLocations().get(1).getOccupancy());
+        verify(prisonRepository, times(1)).findLocationFigures();
+        verify(prisonRepository, times(2)).findOccupancyPercentiles();
+        verify(prisonRepository, times(2)).findMostOccupied(any(Pageable.class));
+    }
+
+    @Test
+    void onSaved_ShouldGroupLocationsIgnoringCaseAndSpaces() {
+        // Arrange
+        prisonStatsService.getStats();
+        long generation = prisonStatsService.generation();
+
+        // Act
+        prisonStatsService.onSaved(generation, null, prison(5L, "Chikurubi", " harare ", 100, 40));
+        Prison bulawayo = prison(4L, "Bulawayo Farm", "Bulawayo", null, 40);
+        PrisonStatsService.Figures before = PrisonStatsService.Figures.of(bulawayo);
+        bulawayo.setLocation("HARARE");
+        prisonStatsService.onSaved(generation, before, bulawayo);
+        PrisonStatsResponse stats = prisonStatsService.getStats();
+
+        // Assert
+        assertEquals(5, stats.getPrisonCount());
+        assertEquals(List.of("Harare", "Mutare"), stats.getLocations().stream()
+                .map(PrisonStatsResponse.LocationStats::getLocation).collect(Collectors.toList()));
+        assertEquals(4, stats.getLocations().get(0).getPrisonCount());
+    }
+
+    @Test
+    void onSaved_AfterARebuildDuringTheWrite_ShouldRebuildInsteadOfCountingTwice() {
+        // Arrange - the write starts, then a scheduled rebuild reads the committed row
+        prisonStatsService.getStats();
+        long generation = prisonStatsService.generation();
+        when(prisonRepository.findLocationFigures()).thenReturn(List.of(
+                location("bulawayo", "Bulawayo", 1, 0, 40, 0, 0),
+                location("harare", "Harare", 2, 300, 220, 220, 1),
+                location("mutare", "Mutare", 2, 150, 100, 100, 0)));
+        prisonStatsService.rebuild();
+
+        // Act
+        prisonStatsService.onSaved(generation, null, prison(5L, "Mutare Farm", "Mutare", 50, 10));
+        PrisonStatsResponse stats = prisonStatsService.getStats();
+
+        // Assert
+        assertEquals(5, stats.getPrisonCount());
+        assertEquals(450, stats.getTotalCapacity());
+        assertEquals(2, stats.getLocations().get(2).getPrisonCount());
+        verify(prisonRepository, times(3)).findLocationFigures();
+    }
+
+    private static Prison prison(Long id, String name, String location, Integer capacity, Integer population) {
+        Prison prison = new Prison(name, location, capacity, null, null);
+        prison.setId(id);
+        prison.setCurrentPopulation(population);
+        return prison;
+    }
+
+    private static PrisonFigures figures(Long id, String name, String location, Integer capacity, Integer population) {
+        return new PrisonFigures() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getLocation() {
+                return location;
+            }
+
+            public Integer getCapacity() {
+                return capacity;
+            }
+
+            public Integer getCurrentPopulation() {
+                return population;
+            }
+        };
+    }
+
+    private static LocationFigures location(String key, String name, long prisonCount, long capacity,
+                                            long population, long ratedPopulation, long overcrowded) {
+        return new LocationFigures() {
+            public String getLocationKey() {
+                return key;
+            }
+
+            public String getLocation() {
+                return name;
+            }
+
+            public Long getPrisonCount() {
+                return prisonCount;
+            }
+
+            public Long getCapacity() {
+                return capacity;
+            }
+
+            public Long getPopulation() {
+                return population;
+            }
+
+            public Long getRatedPopulation() {
+                return ratedPopulation;
+            }
+
+            public Long getOvercrowdedCount() {
+                return overcrowded;
+            }
+        };
+    }
+
+    private static OccupancyPercentiles percentiles(Double p50, Double p90, Double p99) {
+        return new OccupancyPercentiles() {
+            public Double getP50() {
+                return p50;
+            }
+
+            public Double getP90() {
+                return p90;
+            }
+
+            public Double getP99() {
+                return p99;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.JwtClaims;
+import com.paz.admin.config.JwtUtils;
+import com.paz.admin.config.UserPrincipal;
+import com.paz.admin.entity.RefreshToken;
+import com.paz.admin.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        principal = new UserPrincipal(1L, "testuser", "test@example.com", "hash", Collections.emptyList());
+    }
+
+    @Test
+    void rotate_WithUnusedToken_ShouldIssueNewTokensInSameFamily() {
+        // Arrange
+        when(jwtUtils.parseVerifiedClaims("refresh")).thenReturn(Optional.of(refreshClaims()));
+        when(refreshTokenRepository.markUsed("jti-1")).thenReturn(1);
+        when(userPrincipalCache.get("testuser", 1L)).thenReturn(principal);
+        when(jwtUtils.generateJwtToken(principal)).thenReturn("access");
+        when(jwtUtils.generateRefreshToken(eq(principal), anyString(), eq("family-1"))).thenReturn("refresh-2");
+
+        // Act
+        RefreshTokenService.RefreshedTokens tokens = refreshTokenService.rotate("refresh");
+
+        // Assert
+        assertEquals("access", tokens.getAccessToken());
+        assertEquals("refresh-2", tokens.getRefreshToken());
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteRowsExpiredBeforeTheGracePeriod() {
+        // Arrange
+        ReflectionTestUtils.setField(refreshTokenService, "purgeGraceMs", 3_600_000L);
+        when(refreshTokenRepository.deleteExpiredBefore(any(LocalDateTime.class))).thenReturn(3);
+        LocalDateTime before = LocalDateTime.now().minusHours(1);
+
+        // Act
+        int deleted = refreshTokenService.purgeExpired();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(refreshTokenRepository).deleteExpiredBefore(cutoff.capture());
+        assertEquals(3, deleted);
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+    }
+
+    @Test
+    void rotate_WithReusedToken_ShouldRevokeFamily() {
+        // Arrange
+        when(jwtUtils.parseVerifiedClaims("refresh")).thenReturn(Optional.of(refreshClaims()));
+        when(refreshTokenRepository.markUsed("jti-1")).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate("refresh"));
+        verify(refreshTokenRepository, times(1)).revokeFamily("family-1");
+        verify(jwtUtils, never()).generateJwtToken(any(UserPrincipal.class));
+    }
+
+    @Test
+    void rotate_WithAccessToken_ShouldBeRejected() {
+        // Arrange
+        JwtClaims accessClaims = new JwtClaims("testuser", 1L, Collections.emptyList(),
+                Instant.now(), Instant.now().plusSeconds(60));
+        when(jwtUtils.parseVerifiedClaims("access")).thenReturn(Optional.of(accessClaims));
+
+        // Act & Assert
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate("access"));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    private JwtClaims refreshClaims() {
+        return new JwtClaims("jti-1", JwtClaims.REFRESH_TOKEN, "family-1", "testuser", 1L,
+                Collections.emptyList(), Instant.now(), Instant.now().plusSeconds(60));
+    }
+}
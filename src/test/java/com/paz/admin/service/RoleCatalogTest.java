@@ -0,0 +1,100 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.Role;
+import com.paz.admin.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCatalogTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleCatalog roleCatalog;
+
+    private Role adminRole;
+    private Role teacherRole;
+
+    @BeforeEach
+    void setUp() {
+        adminRole = role(1L, "ROLE_ADMIN");
+        teacherRole = role(2L, "ROLE_TEACHER");
+    }
+
+    @Test
+    void resolve_ShouldMapApiStringsAndLoadOnce() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(adminRole, teacherRole));
+
+        // Act
+        Set<Role> defaults = roleCatalog.resolve(null);
+        Set<Role> admin = roleCatalog.resolve(Set.of("admin", "teacher"));
+
+        // Assert
+        assertEquals(Set.of(teacherRole), defaults);
+        assertEquals(Set.of(adminRole, teacherRole), admin);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void findByName_OnMiss_ShouldNotReload() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(adminRole, teacherRole));
+        roleCatalog.load();
+
+        // Act
+        boolean first = roleCatalog.findByName("ROLE_UNKNOWN").isPresent();
+        boolean second = roleCatalog.findByName("ROLE_UNKNOWN").isPresent();
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void markStale_ShouldReloadOnNextLookup() {
+        // Arrange
+        Role renamed = role(1L, "ROLE_ADMIN");
+        when(roleRepository.findAll())
+                .thenReturn(List.of(adminRole, teacherRole))
+                .thenReturn(List.of(renamed, teacherRole));
+        roleCatalog.load();
+        assertSame(adminRole, roleCatalog.require("ROLE_ADMIN"));
+
+        // Act
+        roleCatalog.markStale();
+
+        // Assert
+        assertSame(renamed, roleCatalog.require("ROLE_ADMIN"));
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void require_WithUnknownRole_ShouldThrow() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(teacherRole));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> roleCatalog.resolve(Set.of("admin")));
+        assertEquals("Error: Role is not found.", exception.getMessage());
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role(name, null);
+        role.setId(id);
+        return role;
+    }
+}
@@ -0,0 +1,151 @@
+package com.paz.admin.service;
+
+import com.paz.admin.entity.RevokedToken;
+import com.paz.admin.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtExpirationMs", 900000L);
+    }
+
+    @Test
+    void revokeAllForUser_ShouldRejectOnlyThatUsersEarlierTokens() {
+        // Arrange
+        when(revokedTokenRepository.findById("user:7")).thenReturn(Optional.empty());
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Instant issuedBefore = Instant.now().minusSeconds(60);
+
+        // Act
+        tokenRevocationService.revokeAllForUser(7L);
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevokedForUser(7L, issuedBefore));
+        assertFalse(tokenRevocationService.isRevokedForUser(7L, Instant.now().plusSeconds(1)));
+        assertFalse(tokenRevocationService.isRevokedForUser(8L, issuedBefore));
+        // Cutoff rows are not token ids
+        assertFalse(tokenRevocationService.isRevoked("user:7"));
+        verify(revokedTokenRepository).save(argThat(row -> "user:7".equals(row.getJti())
+                && row.getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(14))));
+    }
+
+    @Test
+    void pollForNewRevocations_ShouldPickUpUserCutoffsFromOtherNodes() {
+        // Arrange
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenRevocationService.loadAll();
+        RevokedToken cutoff = new RevokedToken("user:7", LocalDateTime.now().plusMinutes(15));
+        cutoff.setRevokedAt(LocalDateTime.now());
+        when(revokedTokenRepository.findByRevokedAtAfter(any(LocalDateTime.class))).thenReturn(List.of(cutoff));
+
+        // Act
+        tokenRevocationService.pollForNewRevocations();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevokedForUser(7L, Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    void revoke_ShouldPersistAndRejectToken() {
+        // Arrange
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(false);
+
+        // Act
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        assertFalse(tokenRevocationService.isRevoked("jti-2"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void pollForNewRevocations_ShouldPickUpRowsFromOtherNodes() {
+        // Arrange
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenRevocationService.loadAll();
+        when(revokedTokenRepository.findByRevokedAtAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new RevokedToken("jti-remote", LocalDateTime.now().plusMinutes(5))));
+
+        // Act
+        tokenRevocationService.pollForNewRevocations();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("jti-remote"));
+    }
+
+    @Test
+    void sweepExpired_ShouldForgetExpiredTokens() {
+        // Arrange
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new RevokedToken("jti-short", LocalDateTime.now().plusNanos(50_000_000)),
+                        new RevokedToken("jti-long", LocalDateTime.now().plusMinutes(5))));
+        tokenRevocationService.loadAll();
+        assertTrue(tokenRevocationService.isRevoked("jti-short"));
+
+        // Act
+        sleep(100);
+        tokenRevocationService.sweepExpired();
+
+        // Assert
+        assertFalse(tokenRevocationService.isRevoked("jti-short"));
+        assertTrue(tokenRevocationService.isRevoked("jti-long"));
+        verify(revokedTokenRepository, times(1)).deleteExpired(any(LocalDateTime.class));
+    }
+
+    @Test
+    void bloomFilter_ShouldNeverReportFalseNegatives() {
+        // Arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("jti-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("jti-" + i));
+            if (bloomFilter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
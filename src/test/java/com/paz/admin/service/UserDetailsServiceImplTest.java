@@ -1,5 +1,6 @@
 package com.paz.admin.service;
 
+import com.paz.admin.config.AuthMetrics;
 import com.paz.admin.entity.User;
 import com.paz.admin.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +23,9 @@ class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AuthMetrics authMetrics;
+
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
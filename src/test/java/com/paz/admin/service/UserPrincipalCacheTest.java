@@ -0,0 +1,89 @@
+package com.paz.admin.service;
+
+import com.paz.admin.config.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPrincipalCache = new UserPrincipalCache(userDetailsService, meterRegistry, 100, 60);
+    }
+
+    @Test
+    void get_WhenCalledTwice_ShouldLoadUserOnce() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(principal(1L));
+
+        // Act
+        UserPrincipal first = userPrincipalCache.get("testuser", 1L);
+        UserPrincipal second = userPrincipalCache.get("testuser", 1L);
+
+        // Assert
+        assertSame(first, second);
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_WhenUserIdDoesNotMatch_ShouldReload() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(principal(1L), principal(2L));
+
+        // Act
+        userPrincipalCache.get("testuser", 1L);
+        UserPrincipal reloaded = userPrincipalCache.get("testuser", 2L);
+
+        // Assert
+        assertEquals(2L, reloaded.getId());
+        verify(userDetailsService, times(2)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void get_WhenUserIdStillDoesNotMatchAfterReload_ShouldThrowException() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(principal(1L));
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.get("testuser", 99L));
+    }
+
+    @Test
+    void evict_ShouldForceReloadOnNextGet() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(principal(1L));
+        userPrincipalCache.get("testuser", 1L);
+
+        // Act
+        userPrincipalCache.evict("testuser");
+        userPrincipalCache.get("testuser", 1L);
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("testuser");
+    }
+
+    private UserPrincipal principal(Long id) {
+        return new UserPrincipal(id, "testuser", "test@example.com", "password", Collections.emptyList());
+    }
+}